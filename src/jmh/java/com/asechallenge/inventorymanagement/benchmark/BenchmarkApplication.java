@@ -0,0 +1,78 @@
+package com.asechallenge.inventorymanagement.benchmark;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.InventorymanagementApplication;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.util.SkuGenerator;
+
+/**
+ * Boots the application against a SQLite file seeded with a fixed catalog.
+ * Files are kept in java.io.tmpdir per catalog size and reused across runs;
+ * benchmarks leave stock levels unchanged, so a reused file stays comparable.
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int productCount, WebApplicationType webType, String... args) {
+        Path database = Path.of(System.getProperty("java.io.tmpdir"), "inventory-bench-" + productCount + ".db");
+
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:sqlite:" + database,
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        arguments.addAll(List.of(args));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorymanagementApplication.class)
+                .web(webType)
+                .run(arguments.toArray(String[]::new));
+        seed(context, productCount);
+        return context;
+    }
+
+    static String name(int index) {
+        return "Product " + index;
+    }
+
+    static String variant(int index) {
+        return "V" + (index % 7);
+    }
+
+    // "hot" always picks the first product, "spread" picks uniformly across the catalog
+    static int pick(String contention, int productCount) {
+        return "hot".equals(contention) ? 0 : ThreadLocalRandom.current().nextInt(productCount);
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int productCount) {
+        ProductRepository repository = context.getBean(ProductRepository.class);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        int existing = (int) repository.count();
+        for (int start = existing; start < productCount; start += SEED_CHUNK_SIZE) {
+            int end = Math.min(start + SEED_CHUNK_SIZE, productCount);
+            List<Product> chunk = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                // Large stock so decrease benchmarks never hit the stock guard
+                chunk.add(new Product(name(i), variant(i), "Benchmark product " + i,
+                        1_000_000L, 10L, SkuGenerator.generateSKU(name(i), variant(i))));
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.insertProductsIgnoringDuplicates(chunk));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.asechallenge.inventorymanagement.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end request throughput through the embedded Tomcat, including JSON
+ * serialization and the servlet stack, on a random local port.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 3)
+public class HttpEndpointBenchmark {
+
+    @Param({"10000"})
+    public int productCount;
+
+    @Param({"hot", "spread"})
+    public String contention;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(productCount, WebApplicationType.SERVLET);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/products";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getProductByNameAndVariant() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(productUri("")).GET().build();
+        return send(request);
+    }
+
+    // Two requests per operation: increase then decrease by one unit, leaving stock unchanged
+    @Benchmark
+    public int increaseThenDecreaseStock() throws IOException, InterruptedException {
+        int index = BenchmarkApplication.pick(contention, productCount);
+        send(stockChange("/stock/increase", index));
+        return send(stockChange("/stock/decrease", index));
+    }
+
+    private HttpRequest stockChange(String path, int index) {
+        return HttpRequest.newBuilder(productUri(path, index))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\":1}"))
+                .build();
+    }
+
+    private URI productUri(String path) {
+        return productUri(path, BenchmarkApplication.pick(contention, productCount));
+    }
+
+    private URI productUri(String path, int index) {
+        return URI.create(baseUrl + path
+                + "?name=" + URLEncoder.encode(BenchmarkApplication.name(index), StandardCharsets.UTF_8)
+                + "&variant=" + URLEncoder.encode(BenchmarkApplication.variant(index), StandardCharsets.UTF_8));
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + request.uri());
+        }
+        return response.statusCode();
+    }
+}
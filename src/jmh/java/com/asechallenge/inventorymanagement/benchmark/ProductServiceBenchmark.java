@@ -0,0 +1,89 @@
+package com.asechallenge.inventorymanagement.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.asechallenge.inventorymanagement.dto.StockChangeRequestDTO;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.service.ProductService;
+
+/**
+ * Query and update services against a seeded SQLite catalog, without the web layer.
+ * Thread count defaults to 4; override with -t to scale contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 3)
+public class ProductServiceBenchmark {
+
+    @Param({"10000", "100000"})
+    public int productCount;
+
+    // hot: every thread works on the same SKU; spread: SKUs drawn uniformly
+    @Param({"hot", "spread"})
+    public String contention;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private StockChangeRequestDTO oneUnit;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(productCount, WebApplicationType.NONE,
+                "--inventory.cache.products.enabled=" + cacheEnabled);
+        productService = context.getBean(ProductService.class);
+        oneUnit = new StockChangeRequestDTO();
+        oneUnit.setQuantity(1L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product getProductByNameAndVariant() {
+        int index = BenchmarkApplication.pick(contention, productCount);
+        return productService.getProductByNameAndVariant(
+                BenchmarkApplication.name(index), BenchmarkApplication.variant(index));
+    }
+
+    @Benchmark
+    public List<Product> searchProducts() {
+        int index = BenchmarkApplication.pick(contention, productCount);
+        return productService.searchProducts(BenchmarkApplication.name(index), 20);
+    }
+
+    // Increase then decrease by one unit, so stock levels are unchanged after a run
+    @Benchmark
+    public Product increaseThenDecreaseStock() {
+        int index = BenchmarkApplication.pick(contention, productCount);
+        String name = BenchmarkApplication.name(index);
+        String variant = BenchmarkApplication.variant(index);
+        productService.increaseProduct(name, variant, oneUnit);
+        return productService.decreaseProduct(name, variant, oneUnit);
+    }
+}
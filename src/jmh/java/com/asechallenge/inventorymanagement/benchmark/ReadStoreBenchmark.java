@@ -0,0 +1,118 @@
+package com.asechallenge.inventorymanagement.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.service.ProductReadStore;
+import com.asechallenge.inventorymanagement.service.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-mostly store against the JPA path. Run with -prof gc to compare allocation
+ * rate, collection count and time; setup prints the heap each representation of
+ * the whole catalog retains (JPA: the entities of one findAll with their
+ * persistence context, store: its arrays).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Threads(4)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 3)
+public class ReadStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int productCount;
+
+    @Param({"true", "false"})
+    public boolean readStore;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.start(productCount, WebApplicationType.NONE,
+                "--inventory.products.read-store.enabled=" + readStore,
+                "--inventory.cache.products.enabled=false",
+                "--inventory.catalog.snapshot.enabled=false");
+        productService = context.getBean(ProductService.class);
+        if (readStore) {
+            awaitSeededRows(context.getBean(ProductReadStore.class), context.getBean(ProductRepository.class));
+        }
+        reportFootprint();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product getProductByNameAndVariant() {
+        int index = BenchmarkApplication.pick("spread", productCount);
+        return productService.getProductByNameAndVariant(
+                BenchmarkApplication.name(index), BenchmarkApplication.variant(index));
+    }
+
+    // Materializes the whole catalog per call: the allocation-heavy case -prof gc is meant for
+    @Benchmark
+    public List<Product> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    // The store loads before seeding on a first run and catches up through its refresh thread
+    private static void awaitSeededRows(ProductReadStore store, ProductRepository repository)
+            throws InterruptedException {
+        long catalogVersion = repository.findCatalogVersion();
+        while (store.getCatalogVersion() < catalogVersion) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void reportFootprint() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        if (readStore) {
+            double bytes = context.getBean(MeterRegistry.class)
+                    .get("inventory.read.store.bytes").gauge().value();
+            System.out.printf("%nRead store: %.1f MB for %d products%n", bytes / (1 << 20), productCount);
+            return;
+        }
+        ProductRepository repository = context.getBean(ProductRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            System.gc();
+            long before = memory.getHeapMemoryUsage().getUsed();
+            List<Product> products = repository.findAll();
+            System.gc();
+            long retained = memory.getHeapMemoryUsage().getUsed() - before;
+            System.out.printf("%nJPA findAll: %.1f MB retained for %d products%n",
+                    retained / (double) (1 << 20), products.size());
+        });
+    }
+}
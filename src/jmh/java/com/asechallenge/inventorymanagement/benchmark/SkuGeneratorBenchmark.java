@@ -0,0 +1,55 @@
+package com.asechallenge.inventorymanagement.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asechallenge.inventorymanagement.util.SkuGenerator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SkuGeneratorBenchmark {
+
+    // name|variant; an empty variant takes the name-only path
+    @Param({"Laptop|13inch", "Wireless Gaming Mouse|Extra Large Black", "USB Cable|"})
+    public String input;
+
+    private String name;
+    private String variant;
+
+    @Setup
+    public void setUp() {
+        String[] parts = input.split("\\|", -1);
+        name = parts[0];
+        variant = parts[1];
+    }
+
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    // Repeated keys: served by the interning cache
+    @Benchmark
+    public String generateSku() {
+        return SkuGenerator.generateSKU(name, variant);
+    }
+
+    // Full generation into a reused buffer, bypassing the cache
+    @Benchmark
+    public StringBuilder appendSku() {
+        buffer.setLength(0);
+        return SkuGenerator.appendSku(buffer, name, variant);
+    }
+}
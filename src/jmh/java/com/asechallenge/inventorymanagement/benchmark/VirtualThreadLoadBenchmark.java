@@ -0,0 +1,107 @@
+package com.asechallenge.inventorymanagement.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test comparing Tomcat's platform-thread pool with virtual threads. The
+ * default 256 client threads exceed Tomcat's 200 platform threads, so requests
+ * queue for a thread in one mode and for a database connection in the other.
+ * Throughput mode gives requests per second; sample mode reports the latency
+ * percentiles (p0.99 in the results).
+ *
+ * {@code virtualThreads=true} needs the app built for Java 21:
+ * mvn -Pbenchmarks,virtual-threads test-compile exec:exec -Djmh.args="VirtualThreadLoad"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(256)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"10000"})
+    public int productCount;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(productCount, WebApplicationType.SERVLET,
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/products";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getProductByNameAndVariant() throws IOException, InterruptedException {
+        int index = BenchmarkApplication.pick("spread", productCount);
+        return send(HttpRequest.newBuilder(productUri("", index)).GET().build());
+    }
+
+    // Increase then decrease by one unit, leaving stock unchanged; every request takes SQLite's write lock
+    @Benchmark
+    public int increaseThenDecreaseStock() throws IOException, InterruptedException {
+        int index = BenchmarkApplication.pick("spread", productCount);
+        send(stockChange("/stock/increase", index));
+        return send(stockChange("/stock/decrease", index));
+    }
+
+    private HttpRequest stockChange(String path, int index) {
+        return HttpRequest.newBuilder(productUri(path, index))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\":1}"))
+                .build();
+    }
+
+    private URI productUri(String path, int index) {
+        return URI.create(baseUrl + path
+                + "?name=" + URLEncoder.encode(BenchmarkApplication.name(index), StandardCharsets.UTF_8)
+                + "&variant=" + URLEncoder.encode(BenchmarkApplication.variant(index), StandardCharsets.UTF_8));
+    }
+
+    // A 503 (no connection within the pool timeout) counts as a failed run rather than a fast response
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + request.uri());
+        }
+        return response.statusCode();
+    }
+}
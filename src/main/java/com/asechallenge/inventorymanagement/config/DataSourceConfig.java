@@ -0,0 +1,79 @@
+package com.asechallenge.inventorymanagement.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Two connection pools on the one SQLite file, which runs in WAL mode so readers
+ * never wait for the writer:
+ * <ul>
+ *   <li>a single-connection writer pool: writes queue for the connection in the
+ *       pool instead of deadlocking on SQLite's write lock and failing with SQLITE_BUSY</li>
+ *   <li>a read-only pool, one connection per core by default</li>
+ * </ul>
+ * The application sees one {@link LazyConnectionDataSourceProxy}. It takes the
+ * physical connection at the first statement, from the read pool when the
+ * transaction marked the connection read-only ({@code @Transactional(readOnly = true)})
+ * and from the writer otherwise, including outside transactions.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // SQLITE_OPEN_READONLY: a write that is routed to the read pool fails instead of taking the lock
+    private static final String OPEN_READ_ONLY = "1";
+
+    @Bean
+    public HikariDataSource writeDataSource(
+            DataSourceProperties properties,
+            @Value("${inventory.datasource.synchronous:NORMAL}") String synchronous,
+            @Value("${inventory.datasource.busy-timeout:5s}") Duration busyTimeout,
+            @Value("${inventory.datasource.connection-timeout:5s}") Duration connectionTimeout) {
+        HikariDataSource dataSource = pool(properties, "sqlite-write", 1, busyTimeout, connectionTimeout);
+        dataSource.addDataSourceProperty("journal_mode", "WAL");
+        // NORMAL in WAL mode syncs at checkpoints rather than on every commit
+        dataSource.addDataSourceProperty("synchronous", synchronous);
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(
+            DataSourceProperties properties,
+            @Value("${inventory.datasource.read.pool-size:0}") int poolSize,
+            @Value("${inventory.datasource.busy-timeout:5s}") Duration busyTimeout,
+            @Value("${inventory.datasource.connection-timeout:5s}") Duration connectionTimeout) {
+        int size = (poolSize > 0) ? poolSize : Runtime.getRuntime().availableProcessors();
+        HikariDataSource dataSource = pool(properties, "sqlite-read", size, busyTimeout, connectionTimeout);
+        dataSource.addDataSourceProperty("open_mode", OPEN_READ_ONLY);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name, int size,
+                                         Duration busyTimeout, Duration connectionTimeout) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(size);
+        dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        dataSource.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeout.toMillis()));
+        return dataSource;
+    }
+}
@@ -0,0 +1,39 @@
+package com.asechallenge.inventorymanagement.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics beyond the ones Spring Boot records already: http.server.requests per
+ * endpoint, spring.data.repository.invocations per repository method and
+ * hikaricp.connections.acquire per pool. Everything is scraped from
+ * /actuator/prometheus.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryRowMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(new RepositoryRowMetrics(
+                                    meterRegistry.getObject(), repository.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    TransactionMetrics transactionMetrics(MeterRegistry meterRegistry) {
+        return new TransactionMetrics(meterRegistry);
+    }
+}
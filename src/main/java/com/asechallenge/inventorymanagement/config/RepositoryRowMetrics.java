@@ -0,0 +1,64 @@
+package com.asechallenge.inventorymanagement.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many rows each repository method returned, as
+ * {@code inventory.repository.rows{repository, method}}. Methods that return a
+ * single value or nothing are not recorded. Timings per method come from Spring
+ * Boot's {@code spring.data.repository.invocations}.
+ */
+class RepositoryRowMetrics implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    RepositoryRowMetrics(MeterRegistry meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int rows = rows(result);
+        if (rows >= 0) {
+            summaries.computeIfAbsent(invocation.getMethod(), this::summary).record(rows);
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder("inventory.repository.rows")
+                .description("Rows returned per repository method call")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(meterRegistry);
+    }
+
+    // Row count of a query result, or -1 when the result is not a set of rows
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.asechallenge.inventorymanagement.config;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every transaction from begin to commit or rollback, as
+ * {@code inventory.transactions{name, read-only, outcome}}. The name is the
+ * {@code @Transactional} method, or "programmatic" for TransactionTemplate.
+ * Spring Boot registers the listener with the transaction manager.
+ */
+class TransactionMetrics implements TransactionExecutionListener {
+
+    private static final String[] OUTCOMES = {"commit", "commit-failed", "rollback"};
+    private static final int COMMIT = 0;
+    private static final int COMMIT_FAILED = 1;
+    private static final int ROLLBACK = 2;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionExecution, Long> startedAt = new ConcurrentHashMap<>();
+
+    // Per transaction name: [read-only ? 1 : 0][outcome]
+    private final Map<String, Timer[][]> timers = new ConcurrentHashMap<>();
+
+    TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) {
+            startedAt.put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, (commitFailure == null) ? COMMIT : COMMIT_FAILED);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, ROLLBACK);
+    }
+
+    private void record(TransactionExecution transaction, int outcome) {
+        Long start = startedAt.remove(transaction);
+        if (start == null) {
+            return;
+        }
+        String name = transaction.getTransactionName().isEmpty() ? "programmatic" : transaction.getTransactionName();
+        int readOnly = transaction.isReadOnly() ? 1 : 0;
+
+        // Registered on first use so only combinations that occur are exported
+        Timer[][] byName = timers.computeIfAbsent(name, n -> new Timer[2][OUTCOMES.length]);
+        Timer timer = byName[readOnly][outcome];
+        if (timer == null) {
+            // Racing threads get the same meter back from the registry
+            timer = Timer.builder("inventory.transactions")
+                    .description("Transaction duration from begin to completion")
+                    .tag("name", name)
+                    .tag("read-only", Boolean.toString(readOnly == 1))
+                    .tag("outcome", OUTCOMES[outcome])
+                    .register(meterRegistry);
+            byName[readOnly][outcome] = timer;
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
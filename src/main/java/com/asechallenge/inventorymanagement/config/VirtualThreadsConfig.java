@@ -0,0 +1,68 @@
+package com.asechallenge.inventorymanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Opt-in virtual-thread mode ({@code spring.threads.virtual.enabled=true}, Java 21+).
+ * Tomcat and the scheduler then run on virtual threads, and with them every
+ * {@code @Transactional} service call, since those run on the calling thread.
+ *
+ * The SQLite driver runs each statement inside a monitor, which pins the carrier
+ * thread for as long as the statement runs. The connection pools are therefore
+ * kept smaller than the carrier pool: surplus requests park in the pools,
+ * unmounted, and fail with 503 after the connection timeout instead of piling up
+ * inside SQLite.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    public VirtualThreadsConfig() {
+        // Spring Boot silently ignores the property on older runtimes
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException(String.format(
+                    "spring.threads.virtual.enabled requires Java 21 or newer, running on %s; "
+                            + "build with -Pvirtual-threads on a Java 21 JDK", Runtime.version()));
+        }
+    }
+
+    /**
+     * Caps the connections at {@code inventory.virtual-threads.max-database-connections},
+     * or one less than the carrier count when that is 0. The writer pool has a single
+     * connection, so the read pool gets the rest (at least one).
+     */
+    @Bean
+    static BeanPostProcessor virtualThreadConnectionPoolLimit(
+            @Value("${inventory.virtual-threads.max-database-connections:0}") int maxConnections) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && "readDataSource".equals(beanName)) {
+                    int total = (maxConnections > 0) ? maxConnections : carriers() - 1;
+                    int limit = Math.max(1, total - 1);
+                    if (dataSource.getMaximumPoolSize() > limit) {
+                        log.info("Virtual threads enabled: capping the read pool at {} connections ({} carriers)",
+                                limit, carriers());
+                        dataSource.setMaximumPoolSize(limit);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static int carriers() {
+        String parallelism = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        return (parallelism != null) ? Integer.parseInt(parallelism) : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,33 @@
+package com.asechallenge.inventorymanagement.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.asechallenge.inventorymanagement.dto.CacheStatsResponseDTO;
+import com.asechallenge.inventorymanagement.service.ProductCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final ProductCache productCache;
+
+    public CacheController(ProductCache productCache) {
+        this.productCache = productCache;
+    }
+
+    @GetMapping("/products")
+    public ResponseEntity<CacheStatsResponseDTO> getProductCacheStats() {
+        CacheStats stats = productCache.stats();
+        return ResponseEntity.ok(new CacheStatsResponseDTO(
+            productCache.size(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            stats.hitRate()
+        ));
+    }
+}
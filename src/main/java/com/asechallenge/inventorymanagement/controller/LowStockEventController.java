@@ -0,0 +1,85 @@
+package com.asechallenge.inventorymanagement.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.asechallenge.inventorymanagement.dto.LowStockEventDTO;
+import com.asechallenge.inventorymanagement.dto.ProductResponseDTO;
+import com.asechallenge.inventorymanagement.service.LowStockFeed;
+import com.asechallenge.inventorymanagement.service.LowStockTransition;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/products/low-stock")
+public class LowStockEventController {
+
+    private final LowStockFeed lowStockFeed;
+    private final Duration streamTimeout;
+
+    public LowStockEventController(LowStockFeed lowStockFeed,
+                                   @Value("${inventory.low-stock.feed.stream-timeout:30m}") Duration streamTimeout) {
+        this.lowStockFeed = lowStockFeed;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Server-sent events for products crossing their low-stock threshold. Clients
+     * resume with the standard Last-Event-ID header (sent automatically by
+     * EventSource) or the "after" parameter; a "reset" event means the token
+     * could not be resumed and the low-stock list should be reloaded. A client that
+     * falls too far behind has its stream closed and resumes on reconnect.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+
+        LowStockFeed.Subscription subscription = lowStockFeed.subscribe(
+                (after != null) ? after : lastEventId,
+                new LowStockFeed.Listener() {
+                    @Override
+                    public void onTransition(LowStockTransition transition) throws Exception {
+                        emitter.send(SseEmitter.event()
+                                .id(transition.getToken())
+                                .name("low-stock")
+                                .data(toEventDTO(transition), MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void onReset(String token) throws Exception {
+                        emitter.send(SseEmitter.event()
+                                .id(token)
+                                .name("reset")
+                                .data("Resume token is no longer available; reload /api/products?lowStock=true"));
+                    }
+
+                    @Override
+                    public void onDropped() {
+                        // EventSource reconnects on its own, resuming with Last-Event-ID
+                        emitter.complete();
+                    }
+                });
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        return emitter;
+    }
+
+    private LowStockEventDTO toEventDTO(LowStockTransition transition) {
+        return new LowStockEventDTO(
+            transition.getToken(),
+            transition.getDirection().name(),
+            transition.getOccurredAt(),
+            new ProductResponseDTO(transition.getProduct())
+        );
+    }
+}
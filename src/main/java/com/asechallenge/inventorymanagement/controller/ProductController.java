@@ -1,74 +1,165 @@
 package com.asechallenge.inventorymanagement.controller;
 
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentRequestDTO;
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentResponseDTO;
+import com.asechallenge.inventorymanagement.dto.CartDecreaseRequestDTO;
 import com.asechallenge.inventorymanagement.dto.ProductCreationRequestDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO;
+import com.asechallenge.inventorymanagement.dto.ProductLookupRequestDTO;
+import com.asechallenge.inventorymanagement.dto.ProductLookupResultDTO;
+import com.asechallenge.inventorymanagement.dto.ProductPageResponseDTO;
 import com.asechallenge.inventorymanagement.dto.ProductResponseDTO;
 import com.asechallenge.inventorymanagement.dto.ProductUpdateRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockAvailabilityDTO;
 import com.asechallenge.inventorymanagement.dto.StockChangeRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockReservationRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockReservationResponseDTO;
 import com.asechallenge.inventorymanagement.entity.Product;
 import com.asechallenge.inventorymanagement.service.ProductService;
+import com.asechallenge.inventorymanagement.util.ProductCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
     }
 
+    // Conditional GETs compare If-None-Match with the catalog version before any product is read
     @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getAllProducts(WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ProductResponseDTO> response = productService.getAllProducts()
                 .stream()
                 .map(this::toResponseDTO)
                 .toList();
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @GetMapping(path = "/page")
+    public ResponseEntity<ProductPageResponseDTO> getProductsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${inventory.products.page.default-size:100}") int limit) {
+        Slice<Product> page = productService.getProductsPage(cursor, limit);
+        List<ProductResponseDTO> items = page.getContent()
+                .stream()
+                .map(this::toResponseDTO)
+                .toList();
+        String nextCursor = page.hasNext()
+                ? ProductCursor.encode(page.getContent().get(page.getNumberOfElements() - 1).getId())
+                : null;
+        return ResponseEntity.ok(new ProductPageResponseDTO(items, nextCursor));
+    }
+
+    // One JSON object per line, written while the rows are read so memory stays flat
+    @GetMapping(path = "/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = out -> productService.streamAllProducts(product -> writeLine(out, product));
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping(params = "name")
-    public ResponseEntity<List<ProductResponseDTO>> getProductsByName(@RequestParam String name) {
+    public ResponseEntity<List<ProductResponseDTO>> getProductsByName(@RequestParam String name,
+                                                                      WebRequest webRequest) {
+        String etag = catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ProductResponseDTO> response = productService.getProductsByName(name)
                 .stream()
                 .map(this::toResponseDTO)
                 .toList();
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @GetMapping(path = "/search")
+    public ResponseEntity<List<ProductResponseDTO>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ProductResponseDTO> response = productService.searchProducts(q, limit)
+                .stream()
+                .map(this::toResponseDTO)
+                .toList();
         return ResponseEntity.ok(response);
     }
 
     @GetMapping(params = {"name", "variant"})
     public ResponseEntity<ProductResponseDTO> getProductByNameAndVariant(
             @RequestParam String name,
-            @RequestParam String variant) {
+            @RequestParam String variant,
+            WebRequest webRequest) {
         Product product = productService.getProductByNameAndVariant(name, variant);
-        return ResponseEntity.ok(toResponseDTO(product));
+        String etag = productETag(product);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(toResponseDTO(product));
+    }
+
+    // Many (name, variant) pairs in one round trip, e.g. every line of a cart
+    @PostMapping(path = "/lookup")
+    public ResponseEntity<List<ProductLookupResultDTO>> lookupProducts(
+            @Valid @RequestBody ProductLookupRequestDTO request) {
+        return ResponseEntity.ok(productService.lookupProducts(request.getProducts()));
     }
 
     @GetMapping(params = "lowStock")
     public ResponseEntity<List<ProductResponseDTO>> getLowStockProducts(
-            @RequestParam Boolean lowStock) {
+            @RequestParam Boolean lowStock,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "${inventory.products.page.default-size:100}") int size,
+            WebRequest webRequest) {
         if (Boolean.TRUE.equals(lowStock)) {
-            List<ProductResponseDTO> response = productService.getLowStockProducts()
+            String etag = catalogETag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            List<Product> products = (page == null)
+                    ? productService.getLowStockProducts()
+                    : productService.getLowStockProducts(page, size);
+            List<ProductResponseDTO> response = products
                     .stream()
                     .map(this::toResponseDTO)
                     .toList();
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         }
-        return getAllProducts();
+        return getAllProducts(webRequest);
     }
 
     @PostMapping
@@ -79,6 +170,16 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(toResponseDTO(product));
     }
 
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ResponseEntity<ProductImportResponseDTO> importProductsCsv(InputStream body) {
+        return ResponseEntity.ok(productService.importProducts(body, ProductImportResponseDTO.Format.CSV));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ProductImportResponseDTO> importProductsNdjson(InputStream body) {
+        return ResponseEntity.ok(productService.importProducts(body, ProductImportResponseDTO.Format.NDJSON));
+    }
+
 
     @PatchMapping(params = {"name", "variant"})
     public ResponseEntity<ProductResponseDTO> updateProduct(
@@ -107,6 +208,67 @@ public class ProductController {
         return ResponseEntity.ok(toResponseDTO(updated));
     }
 
+    @PutMapping(params = {"name", "variant"}, path = "/stock/hot")
+    public ResponseEntity<ProductResponseDTO> markHot(
+            @RequestParam String name,
+            @RequestParam String variant) {
+        return ResponseEntity.ok(toResponseDTO(productService.markHot(name, variant)));
+    }
+
+    @DeleteMapping(params = {"name", "variant"}, path = "/stock/hot")
+    public ResponseEntity<Void> unmarkHot(
+            @RequestParam String name,
+            @RequestParam String variant) {
+        productService.unmarkHot(name, variant);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(params = {"name", "variant"}, path = "/stock/available")
+    public ResponseEntity<StockAvailabilityDTO> getStockAvailability(
+            @RequestParam String name,
+            @RequestParam String variant) {
+        return ResponseEntity.ok(productService.getStockAvailability(name, variant));
+    }
+
+    @PostMapping(params = {"name", "variant"}, path = "/reservations")
+    public ResponseEntity<StockReservationResponseDTO> reserveStock(
+            @RequestParam String name,
+            @RequestParam String variant,
+            @Valid @RequestBody StockReservationRequestDTO request) {
+        StockReservationResponseDTO response =
+                new StockReservationResponseDTO(productService.reserveStock(name, variant, request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping(path = "/reservations/{id}/commit")
+    public ResponseEntity<ProductResponseDTO> commitReservation(@PathVariable String id) {
+        return ResponseEntity.ok(toResponseDTO(productService.commitReservation(id)));
+    }
+
+    @DeleteMapping(path = "/reservations/{id}")
+    public ResponseEntity<Void> releaseReservation(@PathVariable String id) {
+        productService.releaseReservation(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping(path = "/stock/batch")
+    public ResponseEntity<BatchStockAdjustmentResponseDTO> adjustStockBatch(
+            @Valid @RequestBody BatchStockAdjustmentRequestDTO request) {
+        BatchStockAdjustmentResponseDTO response = productService.adjustStockBatch(request);
+        HttpStatus status = response.isCommitted() ? HttpStatus.OK : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PatchMapping(path = "/stock/cart")
+    public ResponseEntity<List<ProductResponseDTO>> decreaseCart(
+            @Valid @RequestBody CartDecreaseRequestDTO request) {
+        List<ProductResponseDTO> response = productService.decreaseCart(request)
+                .stream()
+                .map(this::toResponseDTO)
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping(params = {"name", "variant"})
     public ResponseEntity<Void> deleteProduct(
             @RequestParam String name,
@@ -117,14 +279,25 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    private void writeLine(OutputStream out, Product product) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(toResponseDTO(product)));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String catalogETag() {
+        return "\"c" + productService.getCatalogVersion() + "\"";
+    }
+
+    // Stock is part of the tag: hot and write-behind SKUs report stock the row's version has not seen yet
+    private String productETag(Product product) {
+        return "\"" + product.getVersion() + "-" + product.getStockQuantity() + "\"";
+    }
+
     private ProductResponseDTO toResponseDTO(Product p) {
-        return new ProductResponseDTO(
-            p.getName(),
-            p.getVariant(),
-            p.getDescription(),
-            p.getStockQuantity(),
-            p.getLowStockThreshold(),
-            p.getSku()
-        );
+        return new ProductResponseDTO(p);
     }
 }
\ No newline at end of file
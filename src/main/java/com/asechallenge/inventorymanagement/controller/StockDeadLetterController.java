@@ -0,0 +1,39 @@
+package com.asechallenge.inventorymanagement.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.asechallenge.inventorymanagement.dto.StockDeltaDeadLetterDTO;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/stock/dead-letters")
+public class StockDeadLetterController {
+
+    private final StockDeltaDeadLetterRepository deadLetterRepository;
+
+    public StockDeadLetterController(StockDeltaDeadLetterRepository deadLetterRepository) {
+        this.deadLetterRepository = deadLetterRepository;
+    }
+
+    // Acknowledged write-behind and hot-ledger deltas the database refused, oldest first
+    @GetMapping
+    public ResponseEntity<List<StockDeltaDeadLetterDTO>> getDeadLetters() {
+        return ResponseEntity.ok(deadLetterRepository.findAllByOrderByIdAsc().stream()
+                .map(StockDeltaDeadLetterDTO::new)
+                .toList());
+    }
+
+    // Called once the product's stock has been reconciled by hand
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> resolveDeadLetter(@PathVariable long id) {
+        deadLetterRepository.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+}
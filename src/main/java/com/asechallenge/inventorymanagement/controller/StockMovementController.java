@@ -0,0 +1,67 @@
+package com.asechallenge.inventorymanagement.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.asechallenge.inventorymanagement.dto.StockMovementDTO;
+import com.asechallenge.inventorymanagement.dto.StockMovementPageResponseDTO;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog;
+import com.asechallenge.inventorymanagement.service.StockMovementJournal;
+import com.asechallenge.inventorymanagement.util.SkuGenerator;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products/movements")
+public class StockMovementController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final StockMovementJournal movementJournal;
+
+    public StockMovementController(StockMovementJournal movementJournal) {
+        this.movementJournal = movementJournal;
+    }
+
+    /**
+     * Journaled stock movements in {@code [from, to)}, oldest first, optionally for
+     * one product. Pages continue from the {@code nextAfter} sequence of the previous one.
+     */
+    @GetMapping
+    public ResponseEntity<StockMovementPageResponseDTO> getMovements(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String variant,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(String.format("limit must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+        if (name == null && variant != null) {
+            throw new IllegalArgumentException("variant requires name");
+        }
+        String sku = (name == null) ? null : SkuGenerator.generateSKU(name.trim(), variant == null ? "" : variant.trim());
+
+        List<StockMovementLog.Movement> movements = movementJournal.find(sku,
+                (from == null) ? Instant.EPOCH : from,
+                (to == null) ? Instant.now() : to,
+                after, limit);
+        Long nextAfter = (movements.size() < limit) ? null : movements.get(movements.size() - 1).sequence();
+        return ResponseEntity.ok(new StockMovementPageResponseDTO(
+                movements.stream().map(StockMovementDTO::new).toList(), nextAfter));
+    }
+
+    // Quantity of every product at the given instant, rebuilt from the nearest snapshot
+    @GetMapping("/quantities")
+    public ResponseEntity<Map<String, Long>> getQuantitiesAt(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return ResponseEntity.ok(movementJournal.quantitiesAt((at == null) ? Instant.now() : at));
+    }
+}
@@ -0,0 +1,29 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class BatchStockAdjustmentRequestDTO {
+
+    public enum Mode {
+        // Roll back the whole batch if any line cannot be applied
+        ALL_OR_NOTHING,
+        // Commit every line that can be applied and report the rest
+        BEST_EFFORT
+    }
+
+    private Mode mode = Mode.ALL_OR_NOTHING;
+
+    @NotEmpty(message = "At least one stock adjustment line is required")
+    @Size(max = 1000, message = "A batch may contain at most 1000 lines")
+    private List<@Valid StockAdjustmentLineDTO> lines;
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public List<StockAdjustmentLineDTO> getLines() { return lines; }
+    public void setLines(List<StockAdjustmentLineDTO> lines) { this.lines = lines; }
+}
@@ -0,0 +1,24 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+public class BatchStockAdjustmentResponseDTO {
+
+    private final BatchStockAdjustmentRequestDTO.Mode mode;
+    private final boolean committed;
+    private final int appliedLines;
+    private final List<StockAdjustmentResultDTO> results;
+
+    public BatchStockAdjustmentResponseDTO(BatchStockAdjustmentRequestDTO.Mode mode, boolean committed,
+                                           int appliedLines, List<StockAdjustmentResultDTO> results) {
+        this.mode = mode;
+        this.committed = committed;
+        this.appliedLines = appliedLines;
+        this.results = results;
+    }
+
+    public BatchStockAdjustmentRequestDTO.Mode getMode() { return mode; }
+    public boolean isCommitted() { return committed; }
+    public int getAppliedLines() { return appliedLines; }
+    public List<StockAdjustmentResultDTO> getResults() { return results; }
+}
@@ -0,0 +1,24 @@
+package com.asechallenge.inventorymanagement.dto;
+
+public class CacheStatsResponseDTO {
+
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final double hitRate;
+
+    public CacheStatsResponseDTO(long size, long hits, long misses, long evictions, double hitRate) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.hitRate = hitRate;
+    }
+
+    public long getSize() { return size; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public double getHitRate() { return hitRate; }
+}
@@ -0,0 +1,17 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class CartDecreaseRequestDTO {
+
+    @NotEmpty(message = "At least one cart line is required")
+    @Size(max = 1000, message = "A cart may contain at most 1000 lines")
+    private List<@Valid CartLineDTO> lines;
+
+    public List<CartLineDTO> getLines() { return lines; }
+    public void setLines(List<CartLineDTO> lines) { this.lines = lines; }
+}
@@ -0,0 +1,26 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class CartLineDTO {
+
+    @NotBlank(message = "Product name is required")
+    private String name;
+
+    private String variant;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be greater than 0")
+    private Long quantity;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getVariant() { return variant; }
+    public void setVariant(String variant) { this.variant = variant; }
+
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+}
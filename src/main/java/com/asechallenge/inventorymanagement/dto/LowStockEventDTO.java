@@ -0,0 +1,26 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+public class LowStockEventDTO {
+
+    private final String token;
+    private final String type;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private final LocalDateTime occurredAt;
+    private final ProductResponseDTO product;
+
+    public LowStockEventDTO(String token, String type, LocalDateTime occurredAt, ProductResponseDTO product) {
+        this.token = token;
+        this.type = type;
+        this.occurredAt = occurredAt;
+        this.product = product;
+    }
+
+    public String getToken() { return token; }
+    public String getType() { return type; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public ProductResponseDTO getProduct() { return product; }
+}
@@ -0,0 +1,18 @@
+package com.asechallenge.inventorymanagement.dto;
+
+public class ProductImportErrorDTO {
+
+    private final int line;
+    private final String sku;
+    private final String message;
+
+    public ProductImportErrorDTO(int line, String sku, String message) {
+        this.line = line;
+        this.sku = sku;
+        this.message = message;
+    }
+
+    public int getLine() { return line; }
+    public String getSku() { return sku; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,32 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+public class ProductImportResponseDTO {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final Format format;
+    private final int receivedRows;
+    private final int importedRows;
+    private final int rejectedRows;
+    private final List<ProductImportErrorDTO> errors;
+
+    public ProductImportResponseDTO(Format format, int receivedRows, int importedRows,
+                                    List<ProductImportErrorDTO> errors) {
+        this.format = format;
+        this.receivedRows = receivedRows;
+        this.importedRows = importedRows;
+        this.rejectedRows = errors.size();
+        this.errors = errors;
+    }
+
+    public Format getFormat() { return format; }
+    public int getReceivedRows() { return receivedRows; }
+    public int getImportedRows() { return importedRows; }
+    public int getRejectedRows() { return rejectedRows; }
+    public List<ProductImportErrorDTO> getErrors() { return errors; }
+}
@@ -0,0 +1,17 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class ProductKeyDTO {
+
+    @NotBlank(message = "Product name is required")
+    private String name;
+
+    private String variant;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getVariant() { return variant; }
+    public void setVariant(String variant) { this.variant = variant; }
+}
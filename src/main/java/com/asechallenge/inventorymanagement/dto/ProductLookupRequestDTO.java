@@ -0,0 +1,17 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class ProductLookupRequestDTO {
+
+    @NotEmpty(message = "At least one product is required")
+    @Size(max = 1000, message = "A lookup may contain at most 1000 products")
+    private List<@Valid ProductKeyDTO> products;
+
+    public List<ProductKeyDTO> getProducts() { return products; }
+    public void setProducts(List<ProductKeyDTO> products) { this.products = products; }
+}
@@ -0,0 +1,26 @@
+package com.asechallenge.inventorymanagement.dto;
+
+public class ProductLookupResultDTO {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    private final int line;
+    private final String sku;
+    private final Status status;
+    private final ProductResponseDTO product;
+
+    public ProductLookupResultDTO(int line, String sku, Status status, ProductResponseDTO product) {
+        this.line = line;
+        this.sku = sku;
+        this.status = status;
+        this.product = product;
+    }
+
+    public int getLine() { return line; }
+    public String getSku() { return sku; }
+    public Status getStatus() { return status; }
+    public ProductResponseDTO getProduct() { return product; }
+}
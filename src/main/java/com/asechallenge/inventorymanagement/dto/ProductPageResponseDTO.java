@@ -0,0 +1,17 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+public class ProductPageResponseDTO {
+
+    private final List<ProductResponseDTO> items;
+    private final String nextCursor;
+
+    public ProductPageResponseDTO(List<ProductResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductResponseDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -1,5 +1,7 @@
 package com.asechallenge.inventorymanagement.dto;
 
+import com.asechallenge.inventorymanagement.entity.Product;
+
 public class ProductResponseDTO {
 
     private String name;
@@ -19,6 +21,11 @@ public class ProductResponseDTO {
         this.sku = sku;
     }
 
+    public ProductResponseDTO(Product product) {
+        this(product.getName(), product.getVariant(), product.getDescription(),
+             product.getStockQuantity(), product.getLowStockThreshold(), product.getSku());
+    }
+
     public String getName() { return name; }
     public String getVariant() { return variant; }
     public String getDescription() { return description; }
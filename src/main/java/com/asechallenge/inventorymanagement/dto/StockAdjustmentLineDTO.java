@@ -0,0 +1,24 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class StockAdjustmentLineDTO {
+
+    @NotBlank(message = "Product name is required")
+    private String name;
+
+    private String variant;
+
+    @NotNull(message = "Delta is required")
+    private Long delta;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getVariant() { return variant; }
+    public void setVariant(String variant) { this.variant = variant; }
+
+    public Long getDelta() { return delta; }
+    public void setDelta(Long delta) { this.delta = delta; }
+}
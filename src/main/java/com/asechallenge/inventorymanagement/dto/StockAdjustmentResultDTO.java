@@ -0,0 +1,31 @@
+package com.asechallenge.inventorymanagement.dto;
+
+public class StockAdjustmentResultDTO {
+
+    public enum Status {
+        APPLIED,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK,
+        ROLLED_BACK
+    }
+
+    private final int line;
+    private final String sku;
+    private final Long delta;
+    private final Status status;
+    private final Long stockQuantity;
+
+    public StockAdjustmentResultDTO(int line, String sku, Long delta, Status status, Long stockQuantity) {
+        this.line = line;
+        this.sku = sku;
+        this.delta = delta;
+        this.status = status;
+        this.stockQuantity = stockQuantity;
+    }
+
+    public int getLine() { return line; }
+    public String getSku() { return sku; }
+    public Long getDelta() { return delta; }
+    public Status getStatus() { return status; }
+    public Long getStockQuantity() { return stockQuantity; }
+}
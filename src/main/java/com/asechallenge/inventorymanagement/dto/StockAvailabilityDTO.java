@@ -0,0 +1,21 @@
+package com.asechallenge.inventorymanagement.dto;
+
+public class StockAvailabilityDTO {
+
+    private final String sku;
+    private final long onHandQuantity;
+    private final long reservedQuantity;
+    private final long availableQuantity;
+
+    public StockAvailabilityDTO(String sku, long onHandQuantity, long reservedQuantity, long availableQuantity) {
+        this.sku = sku;
+        this.onHandQuantity = onHandQuantity;
+        this.reservedQuantity = reservedQuantity;
+        this.availableQuantity = availableQuantity;
+    }
+
+    public String getSku() { return sku; }
+    public long getOnHandQuantity() { return onHandQuantity; }
+    public long getReservedQuantity() { return reservedQuantity; }
+    public long getAvailableQuantity() { return availableQuantity; }
+}
@@ -0,0 +1,28 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.time.Instant;
+
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+
+public class StockDeltaDeadLetterDTO {
+
+    private final long id;
+    private final StockDeltaDeadLetter.Source source;
+    private final String sku;
+    private final long delta;
+    private final Instant rejectedAt;
+
+    public StockDeltaDeadLetterDTO(StockDeltaDeadLetter deadLetter) {
+        this.id = deadLetter.getId();
+        this.source = deadLetter.getSource();
+        this.sku = deadLetter.getSku();
+        this.delta = deadLetter.getDelta();
+        this.rejectedAt = deadLetter.getRejectedAt();
+    }
+
+    public long getId() { return id; }
+    public StockDeltaDeadLetter.Source getSource() { return source; }
+    public String getSku() { return sku; }
+    public long getDelta() { return delta; }
+    public Instant getRejectedAt() { return rejectedAt; }
+}
@@ -0,0 +1,31 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.time.Instant;
+
+import com.asechallenge.inventorymanagement.repository.StockMovementLog;
+
+public class StockMovementDTO {
+
+    private final long sequence;
+    private final Instant occurredAt;
+    private final StockMovementLog.Type type;
+    private final String sku;
+    private final long delta;
+    private final long stockQuantity;
+
+    public StockMovementDTO(StockMovementLog.Movement movement) {
+        this.sequence = movement.sequence();
+        this.occurredAt = Instant.ofEpochMilli(movement.timestamp());
+        this.type = movement.type();
+        this.sku = movement.sku();
+        this.delta = movement.delta();
+        this.stockQuantity = movement.quantity();
+    }
+
+    public long getSequence() { return sequence; }
+    public Instant getOccurredAt() { return occurredAt; }
+    public StockMovementLog.Type getType() { return type; }
+    public String getSku() { return sku; }
+    public long getDelta() { return delta; }
+    public long getStockQuantity() { return stockQuantity; }
+}
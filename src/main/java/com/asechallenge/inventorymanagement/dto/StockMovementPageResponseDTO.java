@@ -0,0 +1,18 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.util.List;
+
+public class StockMovementPageResponseDTO {
+
+    private final List<StockMovementDTO> items;
+    // Pass as "after" to continue; null when the range is exhausted
+    private final Long nextAfter;
+
+    public StockMovementPageResponseDTO(List<StockMovementDTO> items, Long nextAfter) {
+        this.items = items;
+        this.nextAfter = nextAfter;
+    }
+
+    public List<StockMovementDTO> getItems() { return items; }
+    public Long getNextAfter() { return nextAfter; }
+}
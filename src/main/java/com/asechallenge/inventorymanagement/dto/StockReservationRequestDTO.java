@@ -0,0 +1,21 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class StockReservationRequestDTO {
+
+    @NotNull(message = "Quantity to reserve is required")
+    @Min(1)
+    private Long quantity;
+
+    // Optional; inventory.reservations.default-ttl applies when absent
+    @Min(1)
+    private Long ttlSeconds;
+
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+
+    public Long getTtlSeconds() { return ttlSeconds; }
+    public void setTtlSeconds(Long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+}
@@ -0,0 +1,31 @@
+package com.asechallenge.inventorymanagement.dto;
+
+import java.time.Instant;
+
+import com.asechallenge.inventorymanagement.service.StockReservation;
+
+public class StockReservationResponseDTO {
+
+    private final String id;
+    private final String name;
+    private final String variant;
+    private final String sku;
+    private final long quantity;
+    private final Instant expiresAt;
+
+    public StockReservationResponseDTO(StockReservation reservation) {
+        this.id = reservation.getId().toString();
+        this.name = reservation.getName();
+        this.variant = reservation.getVariant();
+        this.sku = reservation.getSku();
+        this.quantity = reservation.getQuantity();
+        this.expiresAt = reservation.getExpiresAt();
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getVariant() { return variant; }
+    public String getSku() { return sku; }
+    public long getQuantity() { return quantity; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
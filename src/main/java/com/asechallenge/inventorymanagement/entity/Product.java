@@ -9,6 +9,8 @@ import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Min;
 
+import org.hibernate.annotations.Generated;
+
 @Entity
 @Table(
     name = "products",
@@ -40,6 +42,13 @@ public class Product {
     @Column(nullable = false, updatable = false)
     private Long lowStockThreshold; 
 
+    // Catalog change counter at the last write of this row (see product_catalog_version in
+    // schema.sql): stamped by the insert trigger and by every stock or description UPDATE
+    @Generated
+    @Column(nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer not null default 0")
+    private Long version;
+
     public Product() {}
 
     public Product(String name, String variant, String description,
@@ -52,6 +61,12 @@ public class Product {
         this.sku = sku;
     }
 
+    public Product(String name, String variant, String description,
+                   Long stockQuantity, Long lowStockThreshold, String sku, Long version) {
+        this(name, variant, description, stockQuantity, lowStockThreshold, sku);
+        this.version = version;
+    }
+
     public Long getId() { return id; }
     public String getName() { return name; }
     public String getVariant() { return variant; }
@@ -59,4 +74,5 @@ public class Product {
     public String getDescription() { return description; }
     public Long getStockQuantity() { return stockQuantity; }
     public Long getLowStockThreshold() { return lowStockThreshold; }
+    public Long getVersion() { return version; }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.asechallenge.inventorymanagement.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Acknowledged stock delta that the products table refused when it was written
+ * behind (product deleted, or stock changed by another path in the meantime).
+ * Kept until an operator has reconciled the product and resolves the entry.
+ */
+@Entity
+@Table(name = "stock_delta_dead_letters")
+public class StockDeltaDeadLetter {
+
+    public enum Source { WRITE_BEHIND, HOT_LEDGER }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Source source;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private Long delta;
+
+    // Journal sequence the rejected write-behind flush covered; null for the hot ledger
+    private Long lastSequence;
+
+    @Column(nullable = false)
+    private Instant rejectedAt;
+
+    public StockDeltaDeadLetter() {}
+
+    public StockDeltaDeadLetter(Source source, String sku, Long delta, Long lastSequence, Instant rejectedAt) {
+        this.source = source;
+        this.sku = sku;
+        this.delta = delta;
+        this.lastSequence = lastSequence;
+        this.rejectedAt = rejectedAt;
+    }
+
+    public Long getId() { return id; }
+    public Source getSource() { return source; }
+    public String getSku() { return sku; }
+    public Long getDelta() { return delta; }
+    public Long getLastSequence() { return lastSequence; }
+    public Instant getRejectedAt() { return rejectedAt; }
+}
@@ -0,0 +1,32 @@
+package com.asechallenge.inventorymanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Highest journal sequence number whose stock delta has been written to the
+ * products table. Saved in the same transaction as the flushed deltas so a
+ * journal replay after a crash never applies a delta twice.
+ */
+@Entity
+@Table(name = "stock_journal_checkpoints")
+public class StockJournalCheckpoint {
+
+    @Id
+    private String journal;
+
+    @Column(nullable = false)
+    private Long lastSequence;
+
+    public StockJournalCheckpoint() {}
+
+    public StockJournalCheckpoint(String journal, Long lastSequence) {
+        this.journal = journal;
+        this.lastSequence = lastSequence;
+    }
+
+    public String getJournal() { return journal; }
+    public Long getLastSequence() { return lastSequence; }
+}
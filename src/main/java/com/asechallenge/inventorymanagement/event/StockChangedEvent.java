@@ -0,0 +1,25 @@
+package com.asechallenge.inventorymanagement.event;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+
+/**
+ * Published by the stock mutation paths with the product as it is after the
+ * change and the signed quantity that was applied.
+ */
+public class StockChangedEvent {
+
+    private final Product product;
+    private final long delta;
+
+    public StockChangedEvent(Product product, long delta) {
+        this.product = product;
+        this.delta = delta;
+    }
+
+    public Product getProduct() { return product; }
+    public long getDelta() { return delta; }
+
+    public long getPreviousQuantity() {
+        return product.getStockQuantity() - delta;
+    }
+}
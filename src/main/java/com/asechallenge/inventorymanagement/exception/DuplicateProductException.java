@@ -4,4 +4,8 @@ public class DuplicateProductException extends InventoryException {
     public DuplicateProductException(String message) {
         super(message);
     }
+
+    public DuplicateProductException(String messageFormat, Object... messageArgs) {
+        super(messageFormat, messageArgs);
+    }
 }
\ No newline at end of file
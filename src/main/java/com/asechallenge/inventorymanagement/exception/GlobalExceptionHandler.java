@@ -1,8 +1,10 @@
 package com.asechallenge.inventorymanagement.exception;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.ServletRequestBindingException;
@@ -16,6 +18,7 @@ import com.asechallenge.inventorymanagement.dto.ErrorResponseDTO;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 
@@ -59,6 +62,33 @@ public class GlobalExceptionHandler {
                 .body(buildError(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI()));
     }
 
+    // Reservation Not Found (released, committed or expired)
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReservationNotFound(
+            ReservationNotFoundException ex,
+            HttpServletRequest request) {
+
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(buildError(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI()));
+    }
+
+    // No pooled database connection within the connection timeout; other data access failures are 500
+    @ExceptionHandler({DataAccessException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ErrorResponseDTO> handleDatabaseUnavailable(
+            Exception ex,
+            HttpServletRequest request) {
+
+        if (!isConnectionTimeout(ex)) {
+            return handleGeneralException(ex, request);
+        }
+        String message = "The database is busy. Please retry the request.";
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(buildError(HttpStatus.SERVICE_UNAVAILABLE, message, request.getRequestURI()));
+    }
+
     // Malformed JSON / Unrecognized Property
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponseDTO> handleMalformedJson(
@@ -163,6 +193,15 @@ public class GlobalExceptionHandler {
                 .body(buildError(HttpStatus.INTERNAL_SERVER_ERROR, message, request.getRequestURI()));
     }
 
+    private boolean isConnectionTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Helper method to build consistent error response
     private ErrorResponseDTO buildError(HttpStatus status, String message, String path) {
         return new ErrorResponseDTO(
@@ -4,4 +4,8 @@ public class InvalidStockValueException extends InventoryException {
     public InvalidStockValueException(String message) {
         super(message);
     }
+
+    public InvalidStockValueException(String messageFormat, Object... messageArgs) {
+        super(messageFormat, messageArgs);
+    }
 }
@@ -1,5 +1,31 @@
 package com.asechallenge.inventorymanagement.exception;
 
+/**
+ * Expected domain outcomes (not found, stock-out, duplicate), always answered by
+ * GlobalExceptionHandler. They are thrown on hot paths, so no stack trace is
+ * captured and a format-style message is only built when it is read.
+ */
 public abstract class InventoryException extends RuntimeException {
-    public InventoryException(String message) { super(message); }
-}
\ No newline at end of file
+
+    private final Object[] messageArgs;
+    private String message;
+
+    public InventoryException(String message) {
+        super(message, null, false, false);
+        this.messageArgs = null;
+        this.message = message;
+    }
+
+    protected InventoryException(String messageFormat, Object... messageArgs) {
+        super(messageFormat, null, false, false);
+        this.messageArgs = messageArgs;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = String.format(super.getMessage(), messageArgs);
+        }
+        return message;
+    }
+}
@@ -4,4 +4,8 @@ public class ProductNotFoundException extends InventoryException {
     public ProductNotFoundException(String message) {
         super(message);
     }
+
+    public ProductNotFoundException(String messageFormat, Object... messageArgs) {
+        super(messageFormat, messageArgs);
+    }
 }
\ No newline at end of file
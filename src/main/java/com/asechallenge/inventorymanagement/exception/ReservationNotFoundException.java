@@ -0,0 +1,11 @@
+package com.asechallenge.inventorymanagement.exception;
+
+public class ReservationNotFoundException extends InventoryException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+
+    public ReservationNotFoundException(String messageFormat, Object... messageArgs) {
+        super(messageFormat, messageArgs);
+    }
+}
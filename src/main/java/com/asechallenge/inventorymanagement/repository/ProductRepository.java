@@ -1,43 +1,36 @@
 package com.asechallenge.inventorymanagement.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.asechallenge.inventorymanagement.entity.Product;
 
-import jakarta.transaction.Transactional;
-
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findProductsByNameContainingIgnoreCase(String name);
 
-    Optional<Product> findBySkuIgnoreCase(String sku);
+    // Keyset page: served by the primary key, cost does not grow with the offset
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
-    @Modifying(clearAutomatically = true)
-    @Transactional
-    @Query("UPDATE Product p SET p.description = :description WHERE p.sku = :sku")
-    int updateDescriptionBySkuIgnoreCase(@Param("sku") String sku, @Param("description") String description);
+    // SKU lookups compare with COLLATE NOCASE so they are served by idx_products_sku_nocase (see schema.sql)
 
-    @Modifying(clearAutomatically = true)
-    @Transactional
-    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.sku = :sku")
-    int increaseStockBySkuIgnoreCase(@Param("sku") String sku, @Param("quantity") Long quantity);
+    @Query(value = "SELECT * FROM products WHERE sku = :sku COLLATE NOCASE", nativeQuery = true)
+    Optional<Product> findBySkuIgnoreCase(@Param("sku") String sku);
 
-    @Modifying(clearAutomatically = true)
-    @Transactional
-    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.sku = :sku AND p.stockQuantity >= :quantity")
-    int decreaseStockBySkuIgnoreCase(@Param("sku") String sku, @Param("quantity") Long quantity);
+    // Low-stock reads walk the trigger-maintained low_stock_products set (see schema.sql)
+    // instead of comparing two columns across the whole products table
 
-    @Modifying(clearAutomatically = true)
-    @Transactional
-    @Query("DELETE FROM Product p WHERE LOWER(p.sku) = LOWER(:sku)")
-    int deleteBySkuIgnoreCase(@Param("sku") String sku);
+    String LOW_STOCK_QUERY = "SELECT p.* FROM low_stock_products l JOIN products p ON p.id = l.product_id "
+            + "ORDER BY l.shortfall DESC, l.product_id";
 
-    
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity < p.lowStockThreshold")
+    @Query(value = LOW_STOCK_QUERY, nativeQuery = true)
     List<Product> findLowStockProducts();
+
+    @Query(value = LOW_STOCK_QUERY, nativeQuery = true)
+    List<Product> findLowStockProducts(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+
+public interface ProductRepositoryCustom {
+
+    // Single-statement mutations: each returns the updated row, or empty if no row matched
+
+    Optional<Product> updateDescriptionReturning(String sku, String description);
+
+    Optional<Product> deleteReturning(String sku);
+
+    Optional<Product> increaseStockReturning(String sku, Long quantity);
+
+    /**
+     * Only decreases when enough stock is available; empty means the product is
+     * missing or the stock guard rejected the change.
+     */
+    Optional<Product> decreaseStockReturning(String sku, Long quantity);
+
+    /**
+     * Applies signed stock deltas as a single JDBC batch. A line only takes effect
+     * when the resulting stock stays >= 0. Returns the affected row count per line.
+     */
+    int[] adjustStockBySkus(List<String> skus, List<Long> deltas);
+
+    /**
+     * Inserts new products as a single JDBC batch. Rows that collide with an existing
+     * product (same SKU or name and variant) are skipped and report 0 affected rows.
+     */
+    int[] insertProductsIgnoringDuplicates(List<Product> products);
+
+    Map<String, Long> findStockQuantitiesBySkus(Collection<String> skus);
+
+    // Products for the given SKUs in no particular order; unknown SKUs are left out
+    List<Product> findAllBySkus(Collection<String> skus);
+
+    /**
+     * Change counter over the whole products table, bumped by triggers on every insert,
+     * delete and stock or description update (see product_catalog_version in schema.sql).
+     */
+    long findCatalogVersion();
+
+    // Products inserted or changed after the given catalog version, in id order
+    List<Product> findChangedSince(long catalogVersion);
+
+    /**
+     * SKUs deleted after the given catalog version, oldest first. Only the last
+     * {@link #DELETION_LOG_RETENTION} catalog versions are kept (see product_deletions in schema.sql).
+     */
+    List<String> findSkusDeletedSince(long catalogVersion);
+
+    long DELETION_LOG_RETENTION = 1_000_000L;
+
+    /**
+     * Ranked full-text search over name, variant and description (see product_search
+     * in schema.sql). Every whitespace-separated term must match as a substring. Input
+     * made only of terms under three characters cannot use the index: name-prefix hits
+     * come first, then unranked substring matches until the limit is reached.
+     */
+    List<Product> searchProducts(String query, int limit);
+
+    // Case-insensitive substring match on the name, served by the search index
+    List<Product> findByNameSubstring(String name);
+
+    /**
+     * Hands every product to the consumer in id order while the result set is
+     * being read, without loading the table into memory or a persistence context.
+     */
+    void forEachProduct(Consumer<Product> consumer);
+}
@@ -0,0 +1,323 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Keeps IN lists well below SQLite's bound parameter limit
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+    private static final String RETURNING_PRODUCT =
+            " RETURNING name, variant, sku, description, stock_quantity, low_stock_threshold, version";
+
+    // Every UPDATE stamps the row with the catalog version its trigger is about to move to
+    private static final String NEXT_VERSION =
+            ", version = (SELECT version + 1 FROM product_catalog_version WHERE id = 0)";
+
+    private static final String UPDATE_DESCRIPTION_SQL =
+            "UPDATE products SET description = ?" + NEXT_VERSION + " WHERE sku = ? COLLATE NOCASE" + RETURNING_PRODUCT;
+
+    private static final String DELETE_SQL =
+            "DELETE FROM products WHERE sku = ? COLLATE NOCASE" + RETURNING_PRODUCT;
+
+    private static final String INCREASE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?" + NEXT_VERSION
+                    + " WHERE sku = ? COLLATE NOCASE" + RETURNING_PRODUCT;
+
+    private static final String DECREASE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?" + NEXT_VERSION
+                    + " WHERE sku = ? COLLATE NOCASE AND stock_quantity >= ?" + RETURNING_PRODUCT;
+
+    private static final RowMapper<Product> PRODUCT_ROW_MAPPER = (rs, rowNum) -> new Product(
+            rs.getString("name"),
+            rs.getString("variant"),
+            rs.getString("description"),
+            rs.getLong("stock_quantity"),
+            rs.getLong("low_stock_threshold"),
+            rs.getString("sku"),
+            rs.getLong("version"));
+
+    private static final String SELECT_ALL_PRODUCTS_SQL =
+            "SELECT name, variant, sku, description, stock_quantity, low_stock_threshold, version FROM products ORDER BY id";
+
+    // The trigram tokenizer cannot match terms shorter than this through the index
+    private static final int MIN_INDEXED_TERM_LENGTH = 3;
+
+    private static final String SEARCH_SELECT =
+            "SELECT p.name, p.variant, p.sku, p.description, p.stock_quantity, p.low_stock_threshold, p.version "
+                    + "FROM product_search s JOIN products p ON p.id = s.rowid "
+                    + "WHERE product_search MATCH ?";
+
+    // Name-prefix hits first, then BM25 with name weighted over variant over description
+    private static final String SEARCH_ORDER =
+            " ORDER BY (p.name LIKE ? ESCAPE '\\') DESC, bm25(product_search, 10.0, 3.0, 1.0) LIMIT ?";
+
+    private static final String SHORT_PREFIX_SEARCH_SQL =
+            "SELECT name, variant, sku, description, stock_quantity, low_stock_threshold, version "
+                    + "FROM products WHERE name LIKE ? ESCAPE '\\' ORDER BY name LIMIT ?";
+
+    // No ORDER BY, so the scan stops as soon as LIMIT rows have matched
+    private static final String SHORT_SUBSTRING_SEARCH_SQL =
+            "SELECT name, variant, sku, description, stock_quantity, low_stock_threshold, version FROM products p WHERE 1";
+
+    private static final String TERM_SUBSTRING_FILTER =
+            " AND (p.name LIKE ? ESCAPE '\\' OR p.variant LIKE ? ESCAPE '\\' OR p.description LIKE ? ESCAPE '\\')";
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT OR IGNORE INTO products (name, variant, description, stock_quantity, low_stock_threshold, sku) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?" + NEXT_VERSION
+                    + " WHERE sku = ? COLLATE NOCASE AND stock_quantity + ? >= 0";
+
+    private static final String SELECT_BY_SKUS_SQL =
+            "SELECT name, variant, sku, description, stock_quantity, low_stock_threshold, version "
+                    + "FROM products WHERE sku COLLATE NOCASE IN (";
+
+    private static final String SELECT_CHANGED_SINCE_SQL =
+            "SELECT name, variant, sku, description, stock_quantity, low_stock_threshold, version "
+                    + "FROM products WHERE version > ? ORDER BY id";
+
+    private static final String SELECT_DELETED_SINCE_SQL =
+            "SELECT sku FROM product_deletions WHERE version > ? ORDER BY version";
+
+    private static final String CATALOG_VERSION_SQL = "SELECT version FROM product_catalog_version WHERE id = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Product> updateDescriptionReturning(String sku, String description) {
+        return querySingle(UPDATE_DESCRIPTION_SQL, description, sku);
+    }
+
+    @Override
+    public Optional<Product> deleteReturning(String sku) {
+        return querySingle(DELETE_SQL, sku);
+    }
+
+    @Override
+    public Optional<Product> increaseStockReturning(String sku, Long quantity) {
+        return querySingle(INCREASE_STOCK_SQL, quantity, sku);
+    }
+
+    @Override
+    public Optional<Product> decreaseStockReturning(String sku, Long quantity) {
+        return querySingle(DECREASE_STOCK_SQL, quantity, sku, quantity);
+    }
+
+    @Override
+    public int[] adjustStockBySkus(List<String> skus, List<Long> deltas) {
+        if (skus.size() != deltas.size()) {
+            throw new IllegalArgumentException("Each SKU must have exactly one stock delta.");
+        }
+
+        return jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, deltas.get(i));
+                ps.setString(2, skus.get(i));
+                ps.setLong(3, deltas.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return skus.size();
+            }
+        });
+    }
+
+    @Override
+    public int[] insertProductsIgnoringDuplicates(List<Product> products) {
+        return jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Product product = products.get(i);
+                ps.setString(1, product.getName());
+                ps.setString(2, product.getVariant());
+                ps.setString(3, product.getDescription());
+                ps.setLong(4, product.getStockQuantity());
+                ps.setLong(5, product.getLowStockThreshold());
+                ps.setString(6, product.getSku());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Long> findStockQuantitiesBySkus(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<String> distinctSkus = new ArrayList<>(new LinkedHashSet<>(skus));
+        // Keyed case-insensitively, like the lookup itself
+        Map<String, Long> quantities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        for (int from = 0; from < distinctSkus.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = distinctSkus.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctSkus.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+            jdbcTemplate.query(
+                    "SELECT sku, stock_quantity FROM products WHERE sku COLLATE NOCASE IN (" + placeholders + ")",
+                    rs -> {
+                        quantities.put(rs.getString("sku"), rs.getLong("stock_quantity"));
+                    },
+                    chunk.toArray());
+        }
+
+        return quantities;
+    }
+
+    @Override
+    public List<Product> findAllBySkus(Collection<String> skus) {
+        List<String> distinctSkus = new ArrayList<>(new LinkedHashSet<>(skus));
+        List<Product> products = new ArrayList<>(distinctSkus.size());
+
+        for (int from = 0; from < distinctSkus.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = distinctSkus.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctSkus.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+            products.addAll(jdbcTemplate.query(SELECT_BY_SKUS_SQL + placeholders + ")",
+                    PRODUCT_ROW_MAPPER, chunk.toArray()));
+        }
+
+        return products;
+    }
+
+    @Override
+    public long findCatalogVersion() {
+        return jdbcTemplate.queryForObject(CATALOG_VERSION_SQL, Long.class);
+    }
+
+    @Override
+    public List<Product> findChangedSince(long catalogVersion) {
+        return jdbcTemplate.query(SELECT_CHANGED_SINCE_SQL, PRODUCT_ROW_MAPPER, catalogVersion);
+    }
+
+    @Override
+    public List<String> findSkusDeletedSince(long catalogVersion) {
+        return jdbcTemplate.queryForList(SELECT_DELETED_SINCE_SQL, String.class, catalogVersion);
+    }
+
+    @Override
+    public List<Product> searchProducts(String query, int limit) {
+        List<String> indexedTerms = new ArrayList<>();
+        List<String> shortTerms = new ArrayList<>();
+        for (String term : query.trim().split("\\s+")) {
+            if (term.length() >= MIN_INDEXED_TERM_LENGTH) {
+                indexedTerms.add(term);
+            } else if (!term.isEmpty()) {
+                shortTerms.add(term);
+            }
+        }
+
+        String namePrefix = escapeLike(query.trim()) + "%";
+        if (indexedTerms.isEmpty()) {
+            return searchShortTerms(shortTerms, namePrefix, limit);
+        }
+
+        StringBuilder sql = new StringBuilder(SEARCH_SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(indexedTerms.stream().map(this::quoteTerm).collect(Collectors.joining(" ")));
+
+        // Short terms only narrow the candidates the index already produced
+        appendSubstringFilters(sql, args, shortTerms);
+
+        sql.append(SEARCH_ORDER);
+        args.add(namePrefix);
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), PRODUCT_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Only very short input (type-ahead after one or two keystrokes), which the
+     * trigram index cannot serve: name-prefix hits first, then the rest is filled by
+     * a substring scan over name, variant and description that stops at the limit.
+     */
+    private List<Product> searchShortTerms(List<String> terms, String namePrefix, int limit) {
+        Map<String, Product> hits = new LinkedHashMap<>();
+        for (Product product : jdbcTemplate.query(SHORT_PREFIX_SEARCH_SQL, PRODUCT_ROW_MAPPER, namePrefix, limit)) {
+            hits.put(product.getSku(), product);
+        }
+        if (hits.size() < limit) {
+            StringBuilder sql = new StringBuilder(SHORT_SUBSTRING_SEARCH_SQL);
+            List<Object> args = new ArrayList<>();
+            appendSubstringFilters(sql, args, terms);
+            sql.append(" LIMIT ?");
+            // Prefix hits may come back again, so ask for enough rows to fill the page after skipping them
+            args.add(limit + hits.size());
+            for (Product product : jdbcTemplate.query(sql.toString(), PRODUCT_ROW_MAPPER, args.toArray())) {
+                if (hits.size() == limit) {
+                    break;
+                }
+                hits.putIfAbsent(product.getSku(), product);
+            }
+        }
+        return new ArrayList<>(hits.values());
+    }
+
+    // Every term must occur in the name, variant or description
+    private void appendSubstringFilters(StringBuilder sql, List<Object> args, List<String> terms) {
+        for (String term : terms) {
+            sql.append(TERM_SUBSTRING_FILTER);
+            String pattern = "%" + escapeLike(term) + "%";
+            args.add(pattern);
+            args.add(pattern);
+            args.add(pattern);
+        }
+    }
+
+    @Override
+    public List<Product> findByNameSubstring(String name) {
+        return jdbcTemplate.query(SEARCH_SELECT + " ORDER BY p.id",
+                PRODUCT_ROW_MAPPER, "name : " + quoteTerm(name));
+    }
+
+    @Override
+    public void forEachProduct(Consumer<Product> consumer) {
+        jdbcTemplate.query(SELECT_ALL_PRODUCTS_SQL, rs -> {
+            consumer.accept(PRODUCT_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    // FTS5 string literal: the term is matched as a phrase, never parsed as query syntax
+    private String quoteTerm(String term) {
+        return "\"" + term.replace("\"", "\"\"") + "\"";
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private Optional<Product> querySingle(String sql, Object... args) {
+        return jdbcTemplate.query(sql, PRODUCT_ROW_MAPPER, args).stream().findFirst();
+    }
+}
@@ -0,0 +1,222 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+
+/**
+ * Columnar snapshot of the products table, written whole and memory-mapped on read.
+ * Names and variants repeat across a catalog, so each is stored once in a dictionary
+ * and rows refer to it by index.
+ *
+ * Layout: [magic:int][catalogVersion:long][rows:int][names][variants]
+ *         [nameIndex:int x rows][variantIndex:int x rows][stockQuantity:long x rows]
+ *         [lowStockThreshold:long x rows][version:long x rows][sku x rows][description x rows]
+ *         [crc32:int]
+ *
+ * A dictionary is [count:int] followed by its strings; a string is [length:int][UTF-8 bytes],
+ * with length -1 for null.
+ */
+public final class ProductSnapshotFile {
+
+    // Products as of the catalog version (see product_catalog_version in schema.sql)
+    public record Snapshot(long catalogVersion, List<Product> products) {}
+
+    private static final int MAGIC = 0x50534E31; // "PSN1"
+    private static final int ROW_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES + Long.BYTES;
+
+    private ProductSnapshotFile() {
+    }
+
+    public static void write(Path file, Snapshot snapshot) throws IOException {
+        List<Product> products = snapshot.products();
+        Map<String, Integer> names = new LinkedHashMap<>();
+        Map<String, Integer> variants = new LinkedHashMap<>();
+        int[] nameIndex = new int[products.size()];
+        int[] variantIndex = new int[products.size()];
+        List<byte[]> skus = new ArrayList<>(products.size());
+        List<byte[]> descriptions = new ArrayList<>(products.size());
+
+        int size = Integer.BYTES + Long.BYTES + Integer.BYTES + ROW_BYTES * products.size() + Integer.BYTES;
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            nameIndex[i] = names.computeIfAbsent(product.getName(), k -> names.size());
+            variantIndex[i] = variants.computeIfAbsent(product.getVariant(), k -> variants.size());
+            byte[] sku = utf8(product.getSku());
+            byte[] description = utf8(product.getDescription());
+            skus.add(sku);
+            descriptions.add(description);
+            size += stringBytes(sku) + stringBytes(description);
+        }
+        List<byte[]> nameBytes = encodeAll(names.keySet());
+        List<byte[]> variantBytes = encodeAll(variants.keySet());
+        size += dictionaryBytes(nameBytes) + dictionaryBytes(variantBytes);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putLong(snapshot.catalogVersion()).putInt(products.size());
+        putDictionary(buffer, nameBytes);
+        putDictionary(buffer, variantBytes);
+        for (int index : nameIndex) {
+            buffer.putInt(index);
+        }
+        for (int index : variantIndex) {
+            buffer.putInt(index);
+        }
+        for (Product product : products) {
+            buffer.putLong(product.getStockQuantity());
+        }
+        for (Product product : products) {
+            buffer.putLong(product.getLowStockThreshold());
+        }
+        for (Product product : products) {
+            buffer.putLong(product.getVersion());
+        }
+        for (byte[] sku : skus) {
+            putString(buffer, sku);
+        }
+        for (byte[] description : descriptions) {
+            putString(buffer, description);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Empty when there is no snapshot yet; a damaged file is reported as an IOException
+    public static Optional<Snapshot> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Product snapshot " + file + " has an invalid size of " + size + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(0, (int) size - Integer.BYTES));
+            if (mapped.getInt() != MAGIC || mapped.getInt((int) size - Integer.BYTES) != (int) crc.getValue()) {
+                throw new IOException("Product snapshot " + file + " is damaged");
+            }
+            return Optional.of(decode(mapped));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static Snapshot decode(ByteBuffer buffer) {
+        long catalogVersion = buffer.getLong();
+        int rows = buffer.getInt();
+        String[] names = getDictionary(buffer);
+        String[] variants = getDictionary(buffer);
+
+        // Fixed-width columns are read in place; SKUs and descriptions follow them
+        int nameColumn = buffer.position();
+        int variantColumn = nameColumn + Integer.BYTES * rows;
+        int stockColumn = variantColumn + Integer.BYTES * rows;
+        int thresholdColumn = stockColumn + Long.BYTES * rows;
+        int versionColumn = thresholdColumn + Long.BYTES * rows;
+        buffer.position(versionColumn + Long.BYTES * rows);
+        String[] skus = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            skus[i] = getString(buffer);
+        }
+
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            products.add(new Product(
+                    names[buffer.getInt(nameColumn + Integer.BYTES * i)],
+                    variants[buffer.getInt(variantColumn + Integer.BYTES * i)],
+                    getString(buffer),
+                    buffer.getLong(stockColumn + Long.BYTES * i),
+                    buffer.getLong(thresholdColumn + Long.BYTES * i),
+                    skus[i],
+                    buffer.getLong(versionColumn + Long.BYTES * i)));
+        }
+        return new Snapshot(catalogVersion, products);
+    }
+
+    private static List<byte[]> encodeAll(Iterable<String> values) {
+        List<byte[]> encoded = new ArrayList<>();
+        for (String value : values) {
+            encoded.add(utf8(value));
+        }
+        return encoded;
+    }
+
+    private static int dictionaryBytes(List<byte[]> values) {
+        int size = Integer.BYTES;
+        for (byte[] value : values) {
+            size += stringBytes(value);
+        }
+        return size;
+    }
+
+    private static void putDictionary(ByteBuffer buffer, List<byte[]> values) {
+        buffer.putInt(values.size());
+        for (byte[] value : values) {
+            putString(buffer, value);
+        }
+    }
+
+    private static String[] getDictionary(ByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getString(buffer);
+        }
+        return values;
+    }
+
+    private static byte[] utf8(String value) {
+        return (value == null) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] value) {
+        return Integer.BYTES + ((value == null) ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,12 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+
+public interface StockDeltaDeadLetterRepository extends JpaRepository<StockDeltaDeadLetter, Long> {
+
+    List<StockDeltaDeadLetter> findAllByOrderByIdAsc();
+}
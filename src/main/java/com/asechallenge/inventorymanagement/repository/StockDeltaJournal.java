@@ -0,0 +1,187 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only local file of acknowledged stock deltas that have not been flushed
+ * to the database yet. Appends only write; {@link #sync} makes a record durable
+ * before its caller is answered, and callers syncing at the same time share one
+ * fsync (group commit).
+ *
+ * Record layout: [sequence:long][skuLength:int][sku:UTF-8 bytes][delta:long]
+ */
+public class StockDeltaJournal implements Closeable {
+
+    public record Entry(long sequence, String sku, long delta) {}
+
+    private static final int FIXED_RECORD_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private FileChannel channel;
+
+    // Records appended so far, guarded by this
+    private long written;
+    // Records known to be on disk; only ever raised
+    private final AtomicLong forced = new AtomicLong();
+    // One fsync at a time; callers arriving meanwhile are covered by the next one
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    public StockDeltaJournal(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            parent.toFile().mkdirs();
+        }
+        this.path = path;
+        this.channel = open(path);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    /**
+     * Reads every complete record. A torn record at the tail (crash mid-write) is
+     * discarded and the file is truncated so new appends start on a clean boundary.
+     */
+    public synchronized List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+        channel.read(buffer, 0);
+        buffer.flip();
+
+        int validBytes = 0;
+        while (buffer.remaining() >= Long.BYTES + Integer.BYTES) {
+            long sequence = buffer.getLong();
+            int skuLength = buffer.getInt();
+            if (skuLength < 0 || buffer.remaining() < skuLength + Long.BYTES) {
+                break;
+            }
+            byte[] sku = new byte[skuLength];
+            buffer.get(sku);
+            long delta = buffer.getLong();
+            entries.add(new Entry(sequence, new String(sku, StandardCharsets.UTF_8), delta));
+            validBytes = buffer.position();
+        }
+
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        return entries;
+    }
+
+    /**
+     * Writes the record without forcing it to disk and returns its position in the
+     * journal, to be passed to {@link #sync}.
+     */
+    public synchronized long append(long sequence, String sku, long delta) throws IOException {
+        write(channel, sequence, sku, delta);
+        return ++written;
+    }
+
+    /**
+     * Returns once the given record and every record appended before it are on disk.
+     * The caller that gets the force lock forces everything written so far, so the
+     * callers queued behind it usually find their record already covered.
+     */
+    public void sync(long record) throws IOException {
+        if (forced.get() >= record) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            while (forced.get() < record) {
+                long upTo;
+                FileChannel target;
+                synchronized (this) {
+                    upTo = written;
+                    target = channel;
+                }
+                try {
+                    target.force(false);
+                } catch (ClosedChannelException ex) {
+                    synchronized (this) {
+                        if (channel == target) {
+                            throw ex;
+                        }
+                    }
+                    // Replaced by a compaction, which forced the records it kept
+                    continue;
+                }
+                raiseForced(upTo);
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void raiseForced(long upTo) {
+        forced.accumulateAndGet(upTo, Math::max);
+    }
+
+    private static void write(FileChannel channel, long sequence, String sku, long delta) throws IOException {
+        byte[] skuBytes = sku.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(FIXED_RECORD_BYTES + skuBytes.length);
+        record.putLong(sequence).putInt(skuBytes.length).put(skuBytes).putLong(delta).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Drops every record up to and including the given sequence. Later records are
+     * copied to a new file that atomically replaces this one, so a crash leaves
+     * either the old or the compacted journal, never a partial one.
+     */
+    public synchronized void retainAfter(long sequence) throws IOException {
+        List<Entry> retained = new ArrayList<>();
+        for (Entry entry : readAll()) {
+            if (entry.sequence() > sequence) {
+                retained.add(entry);
+            }
+        }
+        if (retained.isEmpty()) {
+            clear();
+            return;
+        }
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : retained) {
+                write(out, entry.sequence(), entry.sku(), entry.delta());
+            }
+            out.force(false);
+        }
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel.close();
+        channel = open(path);
+        raiseForced(written);
+    }
+
+    public synchronized void clear() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+        raiseForced(written);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
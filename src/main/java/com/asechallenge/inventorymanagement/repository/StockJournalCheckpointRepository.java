@@ -0,0 +1,8 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.asechallenge.inventorymanagement.entity.StockJournalCheckpoint;
+
+public interface StockJournalCheckpointRepository extends JpaRepository<StockJournalCheckpoint, String> {
+}
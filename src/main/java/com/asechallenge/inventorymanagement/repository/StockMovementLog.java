@@ -0,0 +1,434 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only history of stock movements, split into segment files named after
+ * their first sequence number, plus snapshots of every SKU's quantity. One writer
+ * appends whole batches and fsyncs once per batch; readers scan memory-mapped
+ * segments up to the last fsynced byte while the writer keeps appending.
+ *
+ * Record layout: [length:int][crc32:int][sequence:long][timestamp:long][type:byte]
+ *                [delta:long][quantity:long][sku:UTF-8 bytes]
+ *
+ * Sequences and timestamps never decrease along the log, so a time range is one
+ * contiguous run of records and whole segments can be skipped.
+ */
+public class StockMovementLog implements Closeable {
+
+    public enum Type {
+        CREATE,
+        INCREASE,
+        DECREASE,
+        DELETE
+    }
+
+    public record Movement(long sequence, long timestamp, Type type, String sku, long delta, long quantity) {}
+
+    // Quantities of every SKU after the movement with the given sequence
+    public record Snapshot(long sequence, long timestamp, Map<String, Long> quantities) {}
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int FIXED_PAYLOAD_BYTES = Long.BYTES + Long.BYTES + 1 + Long.BYTES + Long.BYTES;
+    private static final Type[] TYPES = Type.values();
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int retainedSnapshots;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    // Writer state: only touched by the single appending thread
+    private FileChannel activeChannel;
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+    private final CRC32 crc = new CRC32();
+    private long lastSequence;
+    private long lastTimestamp;
+
+    public StockMovementLog(Path directory, long segmentBytes, int retainedSnapshots) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retainedSnapshots = retainedSnapshots;
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> isNamed(path, SEGMENT_PREFIX, SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(path -> sequenceOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX)))
+                    .forEach(path -> segments.add(new Segment(path, sequenceOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX))));
+        }
+        recoverTail();
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Writes the batch with one write and one fsync. Records must continue the
+     * sequence and must not go back in time.
+     */
+    public void append(List<Movement> movements) throws IOException {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.size >= segmentBytes) {
+            segment = rotate(movements.get(0));
+        }
+
+        writeBuffer.clear();
+        long sequence = lastSequence;
+        long timestamp = lastTimestamp;
+        for (Movement movement : movements) {
+            if (movement.sequence() != sequence + 1 || movement.timestamp() < timestamp) {
+                throw new IllegalArgumentException("Stock movements must be appended in sequence and time order");
+            }
+            encode(movement);
+            sequence = movement.sequence();
+            timestamp = movement.timestamp();
+        }
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                activeChannel.write(writeBuffer);
+            }
+            activeChannel.force(false);
+        } catch (IOException ex) {
+            // Cut off a partial write so the batch can be retried on a record boundary
+            activeChannel.truncate(segment.size);
+            activeChannel.position(segment.size);
+            throw ex;
+        }
+        lastSequence = sequence;
+        lastTimestamp = timestamp;
+
+        // Published last: readers never map past bytes that are on disk
+        segment.size = activeChannel.position();
+    }
+
+    /**
+     * Movements after {@code afterSequence} with {@code from <= timestamp < to},
+     * optionally for one SKU (case-insensitive), oldest first.
+     */
+    public List<Movement> read(long afterSequence, long from, long to, String sku, int limit) throws IOException {
+        List<Movement> result = new ArrayList<>();
+        scan(afterSequence, from, movement -> {
+            if (movement.timestamp() >= to) {
+                return false;
+            }
+            if (sku == null || sku.equalsIgnoreCase(movement.sku())) {
+                result.add(movement);
+            }
+            return result.size() < limit;
+        });
+        return result;
+    }
+
+    /**
+     * Hands every movement after {@code afterSequence} to the visitor, oldest first,
+     * until the visitor returns false.
+     */
+    public void replay(long afterSequence, Predicate<Movement> visitor) throws IOException {
+        scan(afterSequence, Long.MIN_VALUE, visitor);
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and renames it into place, so a
+     * snapshot file is either complete or absent. Older snapshots beyond the
+     * retained count are deleted.
+     */
+    public void writeSnapshot(Snapshot snapshot) throws IOException {
+        Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, snapshot.sequence(), SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+
+        List<Map.Entry<byte[], Long>> entries = new ArrayList<>(snapshot.quantities().size());
+        int size = Long.BYTES + Long.BYTES + Integer.BYTES;
+        for (Map.Entry<String, Long> entry : snapshot.quantities().entrySet()) {
+            byte[] sku = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            entries.add(Map.entry(sku, entry.getValue()));
+            size += Integer.BYTES + sku.length + Long.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(snapshot.sequence()).putLong(snapshot.timestamp()).putInt(entries.size());
+        for (Map.Entry<byte[], Long> entry : entries) {
+            buffer.putInt(entry.getKey().length).put(entry.getKey()).putLong(entry.getValue());
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> snapshots = snapshotFiles();
+        for (int j = retainedSnapshots; j < snapshots.size(); j++) {
+            Files.deleteIfExists(snapshots.get(j));
+        }
+    }
+
+    // The newest snapshot taken at or before the timestamp
+    public Optional<Snapshot> latestSnapshot(long atOrBefore) throws IOException {
+        for (Path path : snapshotFiles()) {
+            Snapshot snapshot;
+            try {
+                snapshot = readSnapshot(path);
+            } catch (NoSuchFileException ex) {
+                // Pruned by a concurrent writeSnapshot; older ones follow
+                continue;
+            }
+            if (snapshot.timestamp() <= atOrBefore) {
+                return Optional.of(snapshot);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+    }
+
+    private void scan(long afterSequence, long from, Predicate<Movement> visitor) throws IOException {
+        List<Segment> current = List.copyOf(segments);
+        for (int i = 0; i < current.size(); i++) {
+            Segment segment = current.get(i);
+            if (i + 1 < current.size()) {
+                Segment next = current.get(i + 1);
+                // Everything in this segment precedes the next segment's first record
+                if (next.firstSequence - 1 <= afterSequence || next.firstTimestamp < from) {
+                    continue;
+                }
+            }
+            long size = segment.size;
+            if (size == 0) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                while (mapped.hasRemaining()) {
+                    Movement movement = decode(mapped);
+                    if (movement == null) {
+                        break;
+                    }
+                    if (movement.sequence() <= afterSequence || movement.timestamp() < from) {
+                        continue;
+                    }
+                    if (!visitor.test(movement)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private Segment rotate(Movement first) throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+        Segment segment = new Segment(
+                directory.resolve(fileName(SEGMENT_PREFIX, first.sequence(), SEGMENT_SUFFIX)), first.sequence());
+        // Known before anything is written, so readers can already skip the previous segments by time
+        segment.firstTimestamp = first.timestamp();
+        activeChannel = FileChannel.open(segment.path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Validates the newest segment, truncating a torn or corrupt tail left by a
+     * crash mid-write, and reads the first timestamp of the older ones.
+     */
+    private void recoverTail() throws IOException {
+        while (!segments.isEmpty()) {
+            Segment last = segments.get(segments.size() - 1);
+            FileChannel channel = FileChannel.open(last.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validBytes = 0;
+            Movement first = null;
+            Movement latest = null;
+            if (channel.size() > 0) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                Movement movement;
+                while ((movement = decode(mapped)) != null) {
+                    first = (first == null) ? movement : first;
+                    latest = movement;
+                    validBytes = mapped.position();
+                }
+            }
+            if (latest == null) {
+                // Rotated but nothing made it to disk: fall back to the previous segment
+                channel.close();
+                Files.delete(last.path);
+                segments.remove(segments.size() - 1);
+                continue;
+            }
+            channel.truncate(validBytes);
+            channel.position(validBytes);
+            last.size = validBytes;
+            last.firstTimestamp = first.timestamp();
+            lastSequence = latest.sequence();
+            lastTimestamp = latest.timestamp();
+            activeChannel = channel;
+            break;
+        }
+
+        for (int i = 0; i < segments.size() - 1; i++) {
+            Segment segment = segments.get(i);
+            segment.size = Files.size(segment.path);
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                Movement first = decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.size));
+                segment.firstTimestamp = (first == null) ? Long.MIN_VALUE : first.timestamp();
+            }
+        }
+    }
+
+    private void encode(Movement movement) {
+        byte[] sku = movement.sku().getBytes(StandardCharsets.UTF_8);
+        int payloadBytes = FIXED_PAYLOAD_BYTES + sku.length;
+        ensureCapacity(HEADER_BYTES + payloadBytes);
+
+        int start = writeBuffer.position();
+        writeBuffer.putInt(payloadBytes).putInt(0)
+                .putLong(movement.sequence())
+                .putLong(movement.timestamp())
+                .put((byte) movement.type().ordinal())
+                .putLong(movement.delta())
+                .putLong(movement.quantity())
+                .put(sku);
+
+        crc.reset();
+        crc.update(writeBuffer.array(), start + HEADER_BYTES, payloadBytes);
+        writeBuffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    // Null at the end of the data, or at a torn or corrupt record
+    private Movement decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        int payloadBytes = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (payloadBytes < FIXED_PAYLOAD_BYTES || buffer.remaining() < payloadBytes) {
+            buffer.position(start);
+            return null;
+        }
+
+        byte[] payload = new byte[payloadBytes];
+        buffer.get(payload);
+        CRC32 recordCrc = new CRC32();
+        recordCrc.update(payload);
+        if ((int) recordCrc.getValue() != checksum) {
+            buffer.position(start);
+            return null;
+        }
+
+        ByteBuffer fields = ByteBuffer.wrap(payload);
+        long sequence = fields.getLong();
+        long timestamp = fields.getLong();
+        Type type = TYPES[fields.get()];
+        long delta = fields.getLong();
+        long quantity = fields.getLong();
+        String sku = new String(payload, FIXED_PAYLOAD_BYTES, payloadBytes - FIXED_PAYLOAD_BYTES, StandardCharsets.UTF_8);
+        return new Movement(sequence, timestamp, type, sku, delta, quantity);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (writeBuffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(writeBuffer.capacity() * 2, writeBuffer.position() + bytes));
+            writeBuffer.flip();
+            larger.put(writeBuffer);
+            writeBuffer = larger;
+        }
+    }
+
+    private Snapshot readSnapshot(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        int count = buffer.getInt();
+        Map<String, Long> quantities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < count; i++) {
+            byte[] sku = new byte[buffer.getInt()];
+            buffer.get(sku);
+            quantities.put(new String(sku, StandardCharsets.UTF_8), buffer.getLong());
+        }
+        return new Snapshot(sequence, timestamp, quantities);
+    }
+
+    // Newest first
+    private List<Path> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> isNamed(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX))
+                    .sorted(Comparator.comparingLong(
+                            (Path path) -> sequenceOf(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)).reversed())
+                    .toList();
+        }
+    }
+
+    private static boolean isNamed(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return name.startsWith(prefix) && name.endsWith(suffix);
+    }
+
+    private static long sequenceOf(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    // Zero-padded so a directory listing sorts in sequence order
+    private static String fileName(String prefix, long sequence, String suffix) {
+        return String.format("%s%020d%s", prefix, sequence, suffix);
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long firstSequence;
+        private volatile long firstTimestamp = Long.MIN_VALUE;
+        private volatile long size;
+
+        private Segment(Path path, long firstSequence) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+        }
+    }
+}
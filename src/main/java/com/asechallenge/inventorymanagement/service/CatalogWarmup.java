@@ -0,0 +1,218 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.ProductSnapshotFile;
+import com.asechallenge.inventorymanagement.repository.ProductSnapshotFile.Snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the product cache before the instance reports ready, so the first requests
+ * after a restart are served from memory instead of SQLite. The catalog is read from
+ * a columnar snapshot file (written on a schedule and at shutdown) when it is still
+ * current; for an older snapshot only the rows changed since are read from the
+ * database, and without a usable one the whole table is.
+ *
+ * Progress is reported by the catalogWarmup health indicator, which is part of the
+ * readiness group (GET /actuator/health/readiness). A failed warm-up is logged and
+ * the instance becomes ready anyway, since the cache only saves reads.
+ */
+@Component
+public class CatalogWarmup implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private enum State { WAITING, WARMING, READY }
+
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readTransaction;
+
+    private volatile State state = State.WAITING;
+    private volatile String source = "none";
+    private volatile int total;
+    private volatile int loaded;
+    private volatile long durationMs;
+    private volatile long readyAfterStartMs;
+
+    // Catalog version of the newest snapshot on disk, so an unchanged catalog is not rewritten
+    private volatile long snapshotVersion = -1;
+
+    public CatalogWarmup(
+            @Value("${inventory.catalog.snapshot.enabled:true}") boolean enabled,
+            @Value("${inventory.catalog.snapshot.file:data/catalog.snapshot}") Path snapshotFile,
+            ProductRepository productRepository,
+            ProductCache productCache,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.snapshotFile = snapshotFile;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.meterRegistry = meterRegistry;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            state = State.READY;
+            return;
+        }
+        state = State.WARMING;
+        Thread warmer = new Thread(this::warmUp, "catalog-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    @Override
+    public Health health() {
+        return switch (state) {
+            case WAITING -> Health.outOfService().build();
+            case WARMING -> Health.outOfService()
+                    .withDetail("source", source)
+                    .withDetail("loaded", loaded)
+                    .withDetail("total", total)
+                    .build();
+            case READY -> Health.up()
+                    .withDetail("source", source)
+                    .withDetail("loaded", loaded)
+                    .withDetail("durationMs", durationMs)
+                    .withDetail("readyAfterStartMs", readyAfterStartMs)
+                    .build();
+        };
+    }
+
+    // The first run waits a full interval: warm-up has just read or refreshed the snapshot
+    @Scheduled(fixedDelayString = "${inventory.catalog.snapshot.interval-ms:300000}",
+            initialDelayString = "${inventory.catalog.snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!enabled || state != State.READY) {
+            return;
+        }
+        try {
+            // One read transaction, so the version matches the rows streamed after it
+            Snapshot snapshot = readTransaction.execute(status -> {
+                long catalogVersion = productRepository.findCatalogVersion();
+                if (catalogVersion == snapshotVersion) {
+                    return null;
+                }
+                List<Product> products = new ArrayList<>();
+                productRepository.forEachProduct(products::add);
+                return new Snapshot(catalogVersion, products);
+            });
+            if (snapshot != null) {
+                ProductSnapshotFile.write(snapshotFile, snapshot);
+                snapshotVersion = snapshot.catalogVersion();
+                log.debug("Wrote catalog snapshot of {} products at version {}",
+                        snapshot.products().size(), snapshot.catalogVersion());
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write the catalog snapshot to {}", snapshotFile, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeSnapshot();
+    }
+
+    private void warmUp() {
+        long started = System.nanoTime();
+        // Before the read, so every write committed after it is seen by warm()
+        productCache.beginWarming();
+        try {
+            List<Product> products = readTransaction.execute(status -> loadCatalog());
+            int limit = (int) Math.min(products.size(), productCache.capacity());
+            total = limit;
+            for (int i = 0; i < limit; i++) {
+                productCache.warm(products.get(i));
+                loaded = i + 1;
+            }
+        } catch (RuntimeException ex) {
+            source = "failed";
+            log.warn("Catalog warm-up failed; serving with a cold product cache", ex);
+        } finally {
+            productCache.endWarming();
+        }
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("inventory.catalog.warmup")
+                .description("Time from application ready until the product cache was warm")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        durationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        readyAfterStartMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        state = State.READY;
+        log.info("Warmed {} products from {} in {} ms; ready {} ms after JVM start",
+                loaded, source, durationMs, readyAfterStartMs);
+    }
+
+    private List<Product> loadCatalog() {
+        long catalogVersion = productRepository.findCatalogVersion();
+        Optional<Snapshot> snapshot = readSnapshot();
+
+        if (snapshot.isPresent() && snapshot.get().catalogVersion() == catalogVersion) {
+            source = "snapshot";
+            snapshotVersion = catalogVersion;
+            return snapshot.get().products();
+        }
+        if (snapshot.isPresent() && snapshot.get().catalogVersion() < catalogVersion) {
+            Map<String, Product> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Product product : snapshot.get().products()) {
+                merged.put(product.getSku(), product);
+            }
+            for (Product product : productRepository.findChangedSince(snapshot.get().catalogVersion())) {
+                merged.put(product.getSku(), product);
+            }
+            // Every row missing from the snapshot is a changed one, so equal counts mean nothing was deleted
+            if (merged.size() == productRepository.count()) {
+                source = "snapshot+changes";
+                return new ArrayList<>(merged.values());
+            }
+        }
+        source = "database";
+        List<Product> products = new ArrayList<>();
+        productRepository.forEachProduct(products::add);
+        return products;
+    }
+
+    private Optional<Snapshot> readSnapshot() {
+        try {
+            return ProductSnapshotFile.read(snapshotFile);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable catalog snapshot {}", snapshotFile, ex);
+            return Optional.empty();
+        }
+    }
+}
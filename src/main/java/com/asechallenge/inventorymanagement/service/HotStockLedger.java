@@ -0,0 +1,428 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock for SKUs flagged as hot. Each SKU's quantity is split across
+ * striped counters that are decremented with a CAS on one stripe, so concurrent
+ * buyers of the same SKU rarely touch the same memory and never the database row.
+ * No stripe ever goes below zero, so neither does their sum.
+ *
+ * Net deltas are written to the products row every reconcile interval. Changes made
+ * to the row by other paths are picked up at the same time and folded into the
+ * stripes; a SKU with nothing to write is only read, on the read pool, so idle hot
+ * SKUs never take the single writer connection. The write keeps the row's stock >= 0 guard: decreases the row can no
+ * longer cover because another path took the units first are dead-lettered for
+ * reconciliation rather than driving the row negative. Deltas not yet reconciled
+ * are lost on a crash.
+ */
+@Component
+public class HotStockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockLedger.class);
+
+    // Stripes sit 8 longs (64 bytes) apart so neighbouring counters do not share a cache line
+    private static final int PADDING = 8;
+
+    private final List<String> configuredSkus;
+    private final int stripes;
+    private final ProductRepository productRepository;
+    private final StockDeltaDeadLetterRepository deadLetterRepository;
+    private final InventoryMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransaction;
+    private final Map<String, HotStock> hotStocks = new ConcurrentHashMap<>();
+
+    public HotStockLedger(
+            @Value("${inventory.stock.hot.skus:}") List<String> configuredSkus,
+            @Value("${inventory.stock.hot.stripes:16}") int stripes,
+            ProductRepository productRepository,
+            StockDeltaDeadLetterRepository deadLetterRepository,
+            InventoryMetrics metrics,
+            PlatformTransactionManager transactionManager) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("inventory.stock.hot.stripes must be positive");
+        }
+        this.configuredSkus = configuredSkus;
+        this.stripes = powerOfTwoAtLeast(stripes);
+        this.productRepository = productRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void promoteConfiguredSkus() {
+        for (String sku : configuredSkus) {
+            if (sku.isBlank()) {
+                continue;
+            }
+            try {
+                promote(sku.trim());
+            } catch (ProductNotFoundException ex) {
+                log.warn("Configured hot SKU '{}' does not exist, skipping", sku.trim());
+            }
+        }
+    }
+
+    public boolean isHot(String sku) {
+        return hotStocks.containsKey(key(sku));
+    }
+
+    /**
+     * Moves the SKU's stock into the ledger. A stock change already in flight on the
+     * database path while the SKU is promoted is only picked up at the next reconcile.
+     */
+    public Product promote(String sku) {
+        HotStock stock = hotStocks.get(key(sku));
+        if (stock == null) {
+            // Read outside the map so the query never blocks other keys' bins; a losing racer's read is discarded
+            Product product = productRepository.findBySkuIgnoreCase(sku)
+                    .orElseThrow(() -> new ProductNotFoundException(
+                            "Product with SKU '%s' not found", sku
+                    ));
+            HotStock promoted = new HotStock(product, stripes);
+            stock = hotStocks.putIfAbsent(key(sku), promoted);
+            if (stock == null) {
+                stock = promoted;
+            }
+        }
+        return stock.toProduct();
+    }
+
+    /**
+     * Writes the SKU's outstanding delta and returns its stock to the database path.
+     */
+    public void demote(String sku) {
+        HotStock stock = hotStocks.get(key(sku));
+        if (stock == null) {
+            return;
+        }
+        // Stays registered until the delta is written, so no caller reaches the row before that
+        stock.reconcileLock.lock();
+        try {
+            stock.retire();
+            reconcile(stock);
+            if (stock.shortfall > 0) {
+                // Retired, so nothing new arrives: one more write records the shortfall absorb carried over
+                reconcile(stock);
+            }
+            hotStocks.remove(key(sku), stock);
+        } finally {
+            stock.reconcileLock.unlock();
+        }
+    }
+
+    // Drops the SKU without writing its delta, for products that are being deleted
+    public void discard(String sku) {
+        HotStock stock = hotStocks.remove(key(sku));
+        if (stock != null) {
+            stock.retire();
+        }
+    }
+
+    /**
+     * Returns the updated product, or null when the SKU is not hot (or was just
+     * demoted) and the caller should use the database path.
+     */
+    public Product increase(String sku, long quantity) {
+        HotStock stock = hotStocks.get(key(sku));
+        return (stock == null) ? null : stock.increase(quantity);
+    }
+
+    public Product decrease(String sku, long quantity) {
+        HotStock stock = hotStocks.get(key(sku));
+        return (stock == null) ? null : stock.decrease(quantity);
+    }
+
+    // The product with its ledger quantity when the SKU is hot, unchanged otherwise
+    public Product project(Product product) {
+        HotStock stock = hotStocks.get(key(product.getSku()));
+        return (stock == null) ? product : stock.toProduct();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.hot.reconcile-interval-ms:100}")
+    public void reconcileAll() {
+        for (HotStock stock : hotStocks.values()) {
+            try {
+                reconcile(stock);
+            } catch (RuntimeException ex) {
+                // The delta was put back, so the next run retries it
+                log.warn("Hot stock reconcile failed for SKU '{}', will retry", stock.product.getSku(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hotStocks.keySet().forEach(this::demote);
+    }
+
+    private void reconcile(HotStock stock) {
+        String sku = stock.product.getSku();
+        stock.reconcileLock.lock();
+        try {
+            long delta = stock.unreconciled.sumThenReset();
+            long carriedShortfall = stock.shortfall;
+            Optional<Long> persisted;
+            if (delta == 0 && carriedShortfall == 0) {
+                // Nothing to write: only look for changes other paths made to the row
+                persisted = readTransaction.execute(status -> Optional.ofNullable(
+                        productRepository.findStockQuantitiesBySkus(List.of(sku)).get(sku)));
+            } else {
+                try {
+                    persisted = transactionTemplate.execute(status -> write(sku, delta, carriedShortfall));
+                } catch (RuntimeException ex) {
+                    stock.unreconciled.add(delta);
+                    throw ex;
+                }
+            }
+            stock.shortfall = 0;
+
+            if (persisted.isEmpty()) {
+                log.warn("Hot SKU '{}' no longer exists, dropping it from the ledger", sku);
+                hotStocks.remove(key(sku), stock);
+                return;
+            }
+
+            // Anything beyond our own delta was written by another path since the last reconcile
+            long drift = persisted.get() - (stock.persistedQuantity + delta);
+            stock.persistedQuantity = persisted.get();
+            if (drift != 0) {
+                long oversold = stock.absorb(drift);
+                if (oversold > 0) {
+                    // Already sold from the ledger: the next write brings the row to 0 and dead-letters the rest
+                    stock.unreconciled.add(oversold);
+                    stock.shortfall = oversold;
+                }
+            }
+        } finally {
+            stock.reconcileLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the delta with the row's stock >= 0 guard and returns the row's new
+     * quantity, or empty when the product is gone. Decreases the row cannot cover
+     * are written down to 0 and the rest, plus any shortfall carried over from the
+     * last reconcile, is dead-lettered in the same transaction.
+     */
+    private Optional<Long> write(String sku, long delta, long carriedShortfall) {
+        long shortfall = carriedShortfall;
+        if (delta != 0 && productRepository.adjustStockBySkus(List.of(sku), List.of(delta))[0] == 0) {
+            Long onHand = productRepository.findStockQuantitiesBySkus(List.of(sku)).get(sku);
+            if (onHand == null) {
+                return Optional.empty();
+            }
+            shortfall += -(onHand + delta);
+            if (onHand > 0) {
+                productRepository.adjustStockBySkus(List.of(sku), List.of(-onHand));
+            }
+        }
+        Optional<Long> persisted = Optional.ofNullable(productRepository.findStockQuantitiesBySkus(List.of(sku)).get(sku));
+
+        if (shortfall > 0 && persisted.isPresent()) {
+            deadLetterRepository.save(new StockDeltaDeadLetter(
+                    StockDeltaDeadLetter.Source.HOT_LEDGER, sku, -shortfall, null, Instant.now()));
+            log.error("Hot SKU '{}' sold {} units the row no longer held; dead-lettered for reconciliation",
+                    sku, shortfall);
+            metrics.deadLetteredDeltas(StockDeltaDeadLetter.Source.HOT_LEDGER, 1);
+        }
+        return persisted;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    private static String key(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class HotStock {
+
+        private final Product product;
+        private final int mask;
+        private final AtomicLongArray counters;
+        private final LongAdder unreconciled = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        // Held across a database write, so not a monitor: that would pin a virtual thread's carrier
+        private final ReentrantLock reconcileLock = new ReentrantLock();
+        private volatile boolean retired;
+
+        // Row quantity as of the last reconcile, and units sold from the ledger that the
+        // row turned out not to hold, to dead-letter with the next write; guarded by reconcileLock
+        private long persistedQuantity;
+        private long shortfall;
+
+        private HotStock(Product product, int stripes) {
+            this.product = product;
+            this.mask = stripes - 1;
+            this.counters = new AtomicLongArray(stripes * PADDING);
+            this.persistedQuantity = product.getStockQuantity();
+            spread(product.getStockQuantity());
+        }
+
+        private Product increase(long quantity) {
+            if (!enter()) {
+                return null;
+            }
+            try {
+                counters.addAndGet(slot(home()), quantity);
+                unreconciled.add(quantity);
+                return toProduct();
+            } finally {
+                inFlight.decrement();
+            }
+        }
+
+        private Product decrease(long quantity) {
+            if (!enter()) {
+                return null;
+            }
+            try {
+                int home = home();
+                for (int i = 0; i <= mask; i++) {
+                    int slot = slot((home + i) & mask);
+                    long available = counters.get(slot);
+                    while (available >= quantity) {
+                        if (counters.compareAndSet(slot, available, available - quantity)) {
+                            unreconciled.add(-quantity);
+                            return toProduct();
+                        }
+                        available = counters.get(slot);
+                    }
+                }
+                return decreaseAcrossStripes(quantity);
+            } finally {
+                inFlight.decrement();
+            }
+        }
+
+        /**
+         * No single stripe holds enough: pool all stripes under the lock, then spread the
+         * rest again. Lock-free changes keep landing on the stripes while they are drained,
+         * so an increase can reach a stripe after it was emptied and be missing from the
+         * pooled total; a short total is only reported once the stripes, with those units
+         * spread back, still hold less than the quantity.
+         */
+        private synchronized Product decreaseAcrossStripes(long quantity) {
+            while (true) {
+                long total = drain();
+                if (total >= quantity) {
+                    spread(total - quantity);
+                    unreconciled.add(-quantity);
+                    return toProduct();
+                }
+                spread(total);
+                long available = available();
+                if (available < quantity) {
+                    throw new InvalidStockValueException(
+                            "Cannot decrease stock by %d. Only %d items available.", quantity, available
+                    );
+                }
+            }
+        }
+
+        /**
+         * Applies a change made outside the ledger. The stripes cannot go below zero,
+         * so when the change takes more than they hold, they are emptied and the
+         * missing units are returned.
+         */
+        private synchronized long absorb(long drift) {
+            long total = drain() + drift;
+            spread(Math.max(0, total));
+            return Math.max(0, -total);
+        }
+
+        private void retire() {
+            retired = true;
+            // Wait for operations that entered before retirement so their deltas are counted
+            while (inFlight.sum() > 0) {
+                Thread.onSpinWait();
+            }
+        }
+
+        private boolean enter() {
+            inFlight.increment();
+            if (retired) {
+                inFlight.decrement();
+                // Demotion holds this lock until the row is up to date; then the database path is safe
+                reconcileLock.lock();
+                reconcileLock.unlock();
+                return false;
+            }
+            return true;
+        }
+
+        private long drain() {
+            long total = 0;
+            for (int i = 0; i <= mask; i++) {
+                total += counters.getAndSet(slot(i), 0);
+            }
+            return total;
+        }
+
+        private void spread(long total) {
+            long share = total / (mask + 1);
+            long remainder = total % (mask + 1);
+            for (int i = 0; i <= mask; i++) {
+                counters.addAndGet(slot(i), share + (i < remainder ? 1 : 0));
+            }
+        }
+
+        private long available() {
+            long total = 0;
+            for (int i = 0; i <= mask; i++) {
+                total += counters.get(slot(i));
+            }
+            return total;
+        }
+
+        private int home() {
+            long id = Thread.currentThread().getId();
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        }
+
+        private int slot(int stripe) {
+            return stripe * PADDING;
+        }
+
+        private Product toProduct() {
+            return new Product(product.getName(), product.getVariant(), product.getDescription(),
+                    available(), product.getLowStockThreshold(), product.getSku(), product.getVersion());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Business counters, registered once so the hot paths only increment them.
+ */
+@Component
+public class InventoryMetrics {
+
+    private final Counter stockOuts;
+    private final Counter duplicateCreates;
+    private final Map<StockDeltaDeadLetter.Source, Counter> deadLetteredDeltas = new EnumMap<>(StockDeltaDeadLetter.Source.class);
+    private final Counter enteredLowStock;
+    private final Counter leftLowStock;
+
+    public InventoryMetrics(MeterRegistry meterRegistry) {
+        this.stockOuts = Counter.builder("inventory.stock.outs")
+                .description("Stock decreases rejected because the available stock could not cover them")
+                .register(meterRegistry);
+        this.duplicateCreates = Counter.builder("inventory.products.duplicate.creates")
+                .description("Product creates and imported rows rejected because the product already exists")
+                .register(meterRegistry);
+        for (StockDeltaDeadLetter.Source source : StockDeltaDeadLetter.Source.values()) {
+            deadLetteredDeltas.put(source, Counter.builder("inventory.stock.dead.letters")
+                    .description("Acknowledged stock deltas the database refused and that need reconciling")
+                    .tag("source", source.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.enteredLowStock = lowStockCrossings(meterRegistry, "entered");
+        this.leftLowStock = lowStockCrossings(meterRegistry, "left");
+    }
+
+    public void stockOut() {
+        stockOuts.increment();
+    }
+
+    public void duplicateCreates(int count) {
+        duplicateCreates.increment(count);
+    }
+
+    public void deadLetteredDeltas(StockDeltaDeadLetter.Source source, int count) {
+        deadLetteredDeltas.get(source).increment(count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        Product product = event.getProduct();
+        boolean wasLow = event.getPreviousQuantity() < product.getLowStockThreshold();
+        boolean isLow = product.getStockQuantity() < product.getLowStockThreshold();
+        if (wasLow != isLow) {
+            (isLow ? enteredLowStock : leftLowStock).increment();
+        }
+    }
+
+    private static Counter lowStockCrossings(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("inventory.low.stock.crossings")
+                .description("Committed stock changes that moved a product across its low-stock threshold")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,231 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Feed of products crossing their low-stock threshold in either direction.
+ * The most recent transitions are retained so subscribers can resume from the
+ * token of the last event they saw.
+ *
+ * Tokens are numbers derived from the persisted catalog version (see
+ * product_catalog_version in schema.sql): each transition gets the version its
+ * write stamped on the row, or one more than the previous token when that is not
+ * higher. A restart resumes a client whose token equals the catalog version the
+ * feed started at, since nothing can have changed since; any other token from an
+ * earlier run, or from another database, is answered with a reset.
+ *
+ * Every subscriber has its own bounded queue, drained by its own dispatcher task,
+ * so a slow client neither blocks a stock update nor delays other clients. A
+ * subscriber whose queue fills up is dropped and told to reconnect.
+ */
+@Component
+public class LowStockFeed {
+
+    public interface Listener {
+        void onTransition(LowStockTransition transition) throws Exception;
+
+        // The resume token could not be honoured; the client should reload the low-stock list
+        void onReset(String token) throws Exception;
+
+        // The client fell too far behind and was unsubscribed; it should reconnect with its last token
+        void onDropped() throws Exception;
+    }
+
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockFeed.class);
+
+    private final int retainedEvents;
+    private final int subscriberBuffer;
+    private final ProductRepository productRepository;
+    private final Executor dispatcher;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Guarded by "this"
+    private final Deque<LowStockTransition> retained = new ArrayDeque<>();
+    // Newest token handed out, and the oldest token a subscriber can still resume from
+    private long sequence;
+    private long resumableFrom;
+
+    @Autowired
+    public LowStockFeed(@Value("${inventory.low-stock.feed.retained-events:10000}") int retainedEvents,
+                        @Value("${inventory.low-stock.feed.subscriber-buffer:1000}") int subscriberBuffer,
+                        ProductRepository productRepository) {
+        this(retainedEvents, subscriberBuffer, productRepository, Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "low-stock-feed");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    LowStockFeed(int retainedEvents, int subscriberBuffer, ProductRepository productRepository, Executor dispatcher) {
+        this.retainedEvents = retainedEvents;
+        this.subscriberBuffer = subscriberBuffer;
+        this.productRepository = productRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    @PostConstruct
+    public synchronized void loadCatalogVersion() {
+        sequence = productRepository.findCatalogVersion();
+        resumableFrom = sequence;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        Product product = event.getProduct();
+        boolean wasLow = event.getPreviousQuantity() < product.getLowStockThreshold();
+        boolean isLow = product.getStockQuantity() < product.getLowStockThreshold();
+
+        if (wasLow != isLow) {
+            publish(product, isLow
+                    ? LowStockTransition.Direction.ENTERED_LOW_STOCK
+                    : LowStockTransition.Direction.LEFT_LOW_STOCK);
+        }
+    }
+
+    /**
+     * Registers a listener. Retained transitions after {@code resumeToken} are
+     * delivered first, then live ones, in token order.
+     */
+    public synchronized Subscription subscribe(String resumeToken, Listener listener) {
+        Subscriber subscriber = new Subscriber(listener);
+        if (resumeToken != null && !resumeToken.isBlank()) {
+            Long after = parseToken(resumeToken);
+
+            if (after == null || after > sequence || after < resumableFrom) {
+                String current = Long.toString(sequence);
+                subscriber.offer(() -> listener.onReset(current));
+            } else {
+                for (LowStockTransition transition : retained) {
+                    if (transition.getSequence() > after) {
+                        subscriber.offer(() -> listener.onTransition(transition));
+                    }
+                }
+            }
+        }
+
+        subscribers.add(subscriber);
+        return subscriber::close;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private synchronized void publish(Product product, LowStockTransition.Direction direction) {
+        sequence = Math.max(sequence + 1, product.getVersion() == null ? 0 : product.getVersion());
+        LowStockTransition transition = new LowStockTransition(
+                sequence, Long.toString(sequence), direction, product, LocalDateTime.now());
+
+        retained.addLast(transition);
+        if (retained.size() > retainedEvents) {
+            resumableFrom = retained.removeFirst().getSequence();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(() -> subscriber.listener.onTransition(transition));
+        }
+    }
+
+    private Long parseToken(String token) {
+        try {
+            return Long.parseLong(token.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private interface Delivery {
+        void run() throws Exception;
+    }
+
+    // Deliveries run one at a time per subscriber, in the order they were offered
+    private final class Subscriber {
+
+        private final Listener listener;
+
+        // Guarded by "this"
+        private final Deque<Delivery> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(Listener listener) {
+            this.listener = listener;
+        }
+
+        void offer(Delivery delivery) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= subscriberBuffer) {
+                    log.debug("Dropping low-stock feed subscriber with {} undelivered events", queue.size());
+                    close();
+                    // Runs once the delivery in progress returns, in place of everything it was behind on
+                    queue.addLast(listener::onDropped);
+                } else {
+                    queue.addLast(delivery);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        synchronized void close() {
+            closed = true;
+            queue.clear();
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            while (true) {
+                Delivery delivery;
+                synchronized (this) {
+                    delivery = queue.pollFirst();
+                    if (delivery == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    delivery.run();
+                } catch (Exception ex) {
+                    // Typically a disconnected client
+                    log.debug("Dropping low-stock feed subscriber", ex);
+                    close();
+                }
+            }
+        }
+    }
+}
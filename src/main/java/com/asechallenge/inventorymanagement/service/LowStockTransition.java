@@ -0,0 +1,34 @@
+package com.asechallenge.inventorymanagement.service;
+
+import java.time.LocalDateTime;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+
+public class LowStockTransition {
+
+    public enum Direction {
+        ENTERED_LOW_STOCK,
+        LEFT_LOW_STOCK
+    }
+
+    private final long sequence;
+    private final String token;
+    private final Direction direction;
+    private final Product product;
+    private final LocalDateTime occurredAt;
+
+    public LowStockTransition(long sequence, String token, Direction direction,
+                              Product product, LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.token = token;
+        this.direction = direction;
+        this.product = product;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getSequence() { return sequence; }
+    public String getToken() { return token; }
+    public Direction getDirection() { return direction; }
+    public Product getProduct() { return product; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
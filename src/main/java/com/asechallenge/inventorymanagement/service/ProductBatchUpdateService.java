@@ -0,0 +1,314 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentRequestDTO;
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentResponseDTO;
+import com.asechallenge.inventorymanagement.dto.StockAdjustmentLineDTO;
+import com.asechallenge.inventorymanagement.dto.StockAdjustmentResultDTO;
+import com.asechallenge.inventorymanagement.dto.StockAdjustmentResultDTO.Status;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.util.SkuGenerator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies many signed stock deltas through the same paths as the single-item
+ * endpoints: held units are not available to decreases, hot SKUs change in the
+ * ledger, write-behind mode buffers every line, and the remaining lines are one
+ * JDBC batch. One {@link StockChangedEvent} is published per changed SKU.
+ */
+@Service
+public class ProductBatchUpdateService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBatchUpdateService.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCache productCache;
+    private final StockWriteBehindBuffer writeBehindBuffer;
+    private final HotStockLedger hotStockLedger;
+    private final StockReservationIndex reservationIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductBatchUpdateService(ProductRepository productRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ProductCache productCache,
+                                     StockWriteBehindBuffer writeBehindBuffer,
+                                     HotStockLedger hotStockLedger,
+                                     StockReservationIndex reservationIndex,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productCache = productCache;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.hotStockLedger = hotStockLedger;
+        this.reservationIndex = reservationIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public BatchStockAdjustmentResponseDTO adjustStock(BatchStockAdjustmentRequestDTO request) {
+        BatchStockAdjustmentRequestDTO.Mode mode = (request.getMode() == null)
+                ? BatchStockAdjustmentRequestDTO.Mode.ALL_OR_NOTHING
+                : request.getMode();
+
+        List<StockAdjustmentLineDTO> requestLines = request.getLines();
+        List<Line> lines = new ArrayList<>(requestLines.size());
+
+        for (int i = 0; i < requestLines.size(); i++) {
+            StockAdjustmentLineDTO line = requestLines.get(i);
+            if (line.getDelta() == null || line.getDelta() == 0) {
+                throw new InvalidStockValueException(
+                        "Line %d: stock delta must be a non-zero Integer", i
+                );
+            }
+            String name = line.getName().trim();
+            String variant = normalizeVariant(line.getVariant());
+            lines.add(new Line(i, SkuGenerator.generateSKU(name, variant), name, variant, line.getDelta()));
+        }
+
+        // One transaction (and one commit) for the whole batch
+        return transactionTemplate.execute(status -> apply(mode, lines, status));
+    }
+
+    private BatchStockAdjustmentResponseDTO apply(BatchStockAdjustmentRequestDTO.Mode mode, List<Line> lines,
+                                                  TransactionStatus transaction) {
+        Map<String, Long> planned = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<Line> rowLines = new ArrayList<>();
+        List<Line> memoryLines = new ArrayList<>();
+        for (Line line : lines) {
+            // Units held by open reservations are not available to batch decreases either. The
+            // batch takes what its net decrease of the SKU needs so far, until the transaction ends
+            long running = planned.getOrDefault(line.sku, 0L);
+            long needed = Math.max(0, -(running + line.delta)) - Math.max(0, -running);
+            if (needed > 0 && !reservationIndex.tryTakeUnreserved(line.sku, needed)) {
+                line.status = Status.INSUFFICIENT_STOCK;
+                continue;
+            }
+            planned.merge(line.sku, line.delta, Long::sum);
+            if (hotStockLedger.isHot(line.sku) || writeBehindBuffer.isEnabled()) {
+                memoryLines.add(line);
+            } else {
+                rowLines.add(line);
+            }
+        }
+
+        Map<String, Product> products = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (!rowLines.isEmpty()) {
+            applyRows(rowLines, products);
+        }
+
+        boolean allOrNothing = mode == BatchStockAdjustmentRequestDTO.Mode.ALL_OR_NOTHING;
+        if (allOrNothing && lines.stream().anyMatch(line -> line.status != null && line.status != Status.APPLIED)) {
+            // Rolled back anyway: the ledger and the buffer are left untouched
+            memoryLines.forEach(line -> line.status = Status.ROLLED_BACK);
+        } else if (allOrNothing) {
+            applyInMemoryAllOrNothing(memoryLines, products);
+        } else {
+            memoryLines.forEach(line -> applyInMemory(line, products));
+        }
+
+        int applied = (int) lines.stream().filter(line -> line.status == Status.APPLIED).count();
+        boolean committed = applied == lines.size() || !allOrNothing;
+        if (!committed) {
+            transaction.setRollbackOnly();
+            productCache.evictAll(lines.stream().map(line -> line.sku).toList());
+        } else {
+            publishChanges(lines, products);
+        }
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            Status lineStatus = line.status;
+            if (!committed && lineStatus == Status.APPLIED) {
+                lineStatus = Status.ROLLED_BACK;
+            }
+            Product product = products.get(line.sku);
+            Long stockQuantity = (committed && product != null) ? product.getStockQuantity() : null;
+            results.add(new StockAdjustmentResultDTO(line.index, line.sku, line.delta, lineStatus, stockQuantity));
+        }
+
+        return new BatchStockAdjustmentResponseDTO(mode, committed, committed ? applied : 0, results);
+    }
+
+    // One JDBC batch in request order; a statement that matched no row missed the SKU or hit the stock >= 0 guard
+    private void applyRows(List<Line> rowLines, Map<String, Product> products) {
+        List<String> skus = new ArrayList<>(rowLines.size());
+        List<Long> deltas = new ArrayList<>(rowLines.size());
+        for (Line line : rowLines) {
+            skus.add(line.sku);
+            deltas.add(line.delta);
+        }
+
+        int[] updatedRows = productRepository.adjustStockBySkus(skus, deltas);
+        productRepository.findAllBySkus(skus).forEach(product -> products.put(product.getSku(), product));
+        for (int i = 0; i < rowLines.size(); i++) {
+            Line line = rowLines.get(i);
+            line.status = resolveStatus(updatedRows[i], products.containsKey(line.sku));
+        }
+    }
+
+    // Best effort: every line stands alone, so nothing is undone
+    private void applyInMemory(Line line, Map<String, Product> products) {
+        try {
+            products.put(line.sku, adjustInMemory(line, line.delta));
+            line.status = Status.APPLIED;
+        } catch (InvalidStockValueException ex) {
+            line.status = Status.INSUFFICIENT_STOCK;
+        } catch (ProductNotFoundException ex) {
+            line.status = Status.NOT_FOUND;
+        }
+    }
+
+    /**
+     * Ledger and write-behind changes are outside the transaction, so they are applied
+     * as one net delta per SKU, decreases first: a shortfall then only has decreases to
+     * undo, and giving units back cannot fail the way taking them can.
+     */
+    private void applyInMemoryAllOrNothing(List<Line> memoryLines, Map<String, Product> products) {
+        Map<String, Line> net = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Line line : memoryLines) {
+            net.computeIfAbsent(line.sku, sku -> new Line(-1, sku, line.name, line.variant, 0L)).delta += line.delta;
+        }
+        List<Line> ordered = net.values().stream()
+                .filter(total -> total.delta != 0)
+                .sorted(Comparator.comparingLong(total -> total.delta))
+                .toList();
+
+        List<Line> done = new ArrayList<>();
+        for (Line total : ordered) {
+            try {
+                products.put(total.sku, adjustInMemory(total, total.delta));
+                done.add(total);
+            } catch (InvalidStockValueException | ProductNotFoundException ex) {
+                Status failed = (ex instanceof ProductNotFoundException) ? Status.NOT_FOUND : Status.INSUFFICIENT_STOCK;
+                for (int i = done.size() - 1; i >= 0; i--) {
+                    undoInMemory(done.get(i));
+                }
+                for (Line line : memoryLines) {
+                    line.status = line.sku.equalsIgnoreCase(total.sku) ? failed : Status.ROLLED_BACK;
+                }
+                return;
+            }
+        }
+        memoryLines.forEach(line -> line.status = Status.APPLIED);
+    }
+
+    private Product adjustInMemory(Line line, long delta) {
+        // Hot SKUs are served from the striped ledger; null means the SKU is not hot
+        Product updated = (delta > 0)
+                ? hotStockLedger.increase(line.sku, delta)
+                : hotStockLedger.decrease(line.sku, -delta);
+        if (updated != null) {
+            line.target = Target.LEDGER;
+            return updated;
+        }
+        if (writeBehindBuffer.isEnabled()) {
+            line.target = Target.WRITE_BEHIND;
+            return (delta > 0)
+                    ? writeBehindBuffer.increase(line.sku, delta, line.name, line.variant)
+                    : writeBehindBuffer.decrease(line.sku, -delta, line.name, line.variant);
+        }
+        // Demoted since the lines were split: the row update rolls back with the transaction
+        line.target = Target.ROW;
+        int[] updatedRows = productRepository.adjustStockBySkus(List.of(line.sku), List.of(delta));
+        Product product = productRepository.findBySkuIgnoreCase(line.sku)
+                .orElseThrow(() -> new ProductNotFoundException(
+                        "Product with name '%s' and variant '%s' not found", line.name, line.variant
+                ));
+        if (updatedRows[0] == 0) {
+            throw new InvalidStockValueException(
+                    "Cannot change stock by %d. Only %d items available.", delta, product.getStockQuantity()
+            );
+        }
+        return product;
+    }
+
+    private void undoInMemory(Line total) {
+        if (total.target == Target.ROW) {
+            return;
+        }
+        try {
+            Product undone;
+            if (total.target == Target.LEDGER) {
+                undone = (total.delta < 0)
+                        ? hotStockLedger.increase(total.sku, -total.delta)
+                        : hotStockLedger.decrease(total.sku, total.delta);
+            } else {
+                undone = (total.delta < 0)
+                        ? writeBehindBuffer.increase(total.sku, -total.delta, total.name, total.variant)
+                        : writeBehindBuffer.decrease(total.sku, total.delta, total.name, total.variant);
+            }
+            if (undone == null) {
+                // Demoted in between: the demotion already wrote the change to the row
+                log.warn("Could not undo batch change of {} for SKU '{}': no longer hot", total.delta, total.sku);
+            }
+        } catch (InvalidStockValueException | ProductNotFoundException ex) {
+            // Only an increase gets here: a later SKU of the batch was deleted after its units were sold
+            log.error("Could not undo batch change of {} for SKU '{}'", total.delta, total.sku, ex);
+        }
+    }
+
+    // Published inside the transaction, so listeners only see them once it has committed
+    private void publishChanges(List<Line> lines, Map<String, Product> products) {
+        Map<String, Long> changed = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Line line : lines) {
+            if (line.status == Status.APPLIED) {
+                changed.merge(line.sku, line.delta, Long::sum);
+            }
+        }
+        changed.forEach((sku, delta) -> {
+            Product product = products.get(sku);
+            productCache.put(product);
+            if (delta != 0) {
+                eventPublisher.publishEvent(new StockChangedEvent(product, delta));
+            }
+        });
+    }
+
+    private Status resolveStatus(int updatedRows, boolean productExists) {
+        if (updatedRows > 0) {
+            return Status.APPLIED;
+        }
+        return productExists ? Status.INSUFFICIENT_STOCK : Status.NOT_FOUND;
+    }
+
+    private String normalizeVariant(String variant) {
+        return (variant == null) ? "" : variant.trim();
+    }
+
+    private static final class Line {
+
+        private final int index;
+        private final String sku;
+        private final String name;
+        private final String variant;
+        private long delta;
+        private Status status;
+        private Target target;
+
+        private Line(int index, String sku, String name, String variant, long delta) {
+            this.index = index;
+            this.sku = sku;
+            this.name = name;
+            this.variant = variant;
+            this.delta = delta;
+        }
+    }
+
+    private enum Target { LEDGER, WRITE_BEHIND, ROW }
+}
@@ -0,0 +1,196 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of products keyed by normalized SKU. Write paths
+ * keep it current; inside a transaction the entry is dropped immediately and
+ * only refilled once the transaction has committed.
+ *
+ * Statistics are exported as the cache="products" meters (cache_gets, cache_puts,
+ * cache_evictions, cache_size, ...) on /actuator/prometheus.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final long maxSize;
+    private final Cache<String, Product> cache;
+
+    // Keys put or evicted since warming began; warming must not restore an older row for them
+    private final Set<String> writtenWhileWarming = ConcurrentHashMap.newKeySet();
+    private volatile boolean warming;
+
+    public ProductCache(
+            @Value("${inventory.cache.products.enabled:true}") boolean enabled,
+            @Value("${inventory.cache.products.max-size:10000}") long maxSize,
+            @Value("${inventory.cache.products.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Product> get(String sku, Function<String, Optional<Product>> loader) {
+        if (!enabled) {
+            return loader.apply(sku);
+        }
+        // Missing products are not cached: the loader returns null and nothing is stored
+        return Optional.ofNullable(cache.get(key(sku), k -> loader.apply(sku).orElse(null)));
+    }
+
+    /**
+     * Bulk form of {@link #get}: the loader is called once, with only the SKUs that
+     * missed. The result is keyed case-insensitively by SKU; missing products are absent.
+     */
+    public Map<String, Product> getAll(Collection<String> skus,
+                                       Function<Collection<String>, List<Product>> loader) {
+        Map<String, Product> products = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (!enabled) {
+            products.putAll(byKey(loader.apply(skus)));
+        } else {
+            products.putAll(cache.getAll(skus.stream().map(this::key).toList(),
+                    misses -> byKey(loader.apply(List.copyOf(misses)))));
+        }
+        return products;
+    }
+
+    public void put(Product product) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(product.getSku());
+        recordWrite(List.of(key));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(key);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, product);
+                }
+            });
+        } else {
+            cache.put(key, product);
+        }
+    }
+
+    /**
+     * Starts recording the SKUs that write paths put or evict, so {@link #warm} can skip
+     * them. Call before reading the rows to warm with, and {@link #endWarming} after.
+     */
+    public void beginWarming() {
+        writtenWhileWarming.clear();
+        warming = true;
+    }
+
+    public void endWarming() {
+        warming = false;
+        writtenWhileWarming.clear();
+    }
+
+    /**
+     * Preloads an entry read since {@link #beginWarming}, without replacing one a request or
+     * write has stored meanwhile. SKUs written or deleted since warming began are skipped:
+     * the row read for them may be older than the one the write left behind, or gone.
+     */
+    public void warm(Product product) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(product.getSku());
+        if (writtenWhileWarming.contains(key)) {
+            return;
+        }
+        cache.asMap().putIfAbsent(key, product);
+        // A write recorded after the check above invalidates or replaces the entry itself;
+        // one recorded between the check and the put is caught here
+        if (writtenWhileWarming.contains(key)) {
+            cache.asMap().remove(key, product);
+        }
+    }
+
+    // How many entries warming can usefully fill; 0 when the cache is disabled
+    public long capacity() {
+        return enabled ? maxSize : 0;
+    }
+
+    public void evict(String sku) {
+        evictAll(List.of(sku));
+    }
+
+    public void evictAll(Collection<String> skus) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = skus.stream().map(this::key).toList();
+        recordWrite(keys);
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A reader may have reloaded the old row before the commit became visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void recordWrite(List<String> keys) {
+        if (warming) {
+            writtenWhileWarming.addAll(keys);
+        }
+    }
+
+    private Map<String, Product> byKey(List<Product> products) {
+        Map<String, Product> byKey = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            byKey.put(key(product.getSku()), product);
+        }
+        return byKey;
+    }
+
+    private String key(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+}
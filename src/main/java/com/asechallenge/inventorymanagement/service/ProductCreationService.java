@@ -12,12 +12,31 @@ import com.asechallenge.inventorymanagement.exception.DuplicateProductException;
 public class ProductCreationService {
 
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockMovementJournal movementJournal;
+    private final InventoryMetrics inventoryMetrics;
 
-    public ProductCreationService(ProductRepository productRepository) {
+    public ProductCreationService(ProductRepository productRepository, ProductCache productCache,
+                                  StockMovementJournal movementJournal, InventoryMetrics inventoryMetrics) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.movementJournal = movementJournal;
+        this.inventoryMetrics = inventoryMetrics;
     }
 
     public Product createProduct(ProductCreationRequestDTO request) {
+        Product product = newProduct(request);
+
+        checkDuplicate(product.getSku(), product.getName(), product.getVariant());
+
+        Product saved = productRepository.save(product);
+        productCache.put(saved);
+        movementJournal.recordCreated(saved);
+        return saved;
+    }
+
+    // Normalized, not yet persisted product; shared with the bulk import path
+    Product newProduct(ProductCreationRequestDTO request) {
         String name = normalizeName(request.getName());
         String variant = normalizeVariant(request.getVariant());
         Long stockQuantity = defaultStockIfNull(request.getStockQuantity());
@@ -25,12 +44,8 @@ public class ProductCreationService {
 
         String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
 
-        checkDuplicate(sku, name, variant);
-
-        Product product = new Product(name, variant, request.getDescription(),
-                                      stockQuantity, lowStockThreshold, sku);
-
-        return productRepository.save(product);
+        return new Product(name, variant, request.getDescription(),
+                           stockQuantity, lowStockThreshold, sku);
     }
 
     private String normalizeName(String name) {
@@ -47,8 +62,9 @@ public class ProductCreationService {
 
     private void checkDuplicate(String sku, String name, String variant) {
         if (productRepository.findBySkuIgnoreCase(sku).isPresent()) {
+            inventoryMetrics.duplicateCreates(1);
             throw new DuplicateProductException(
-                    String.format("Product with given name and variant already exists")
+                    "Product with given name and variant already exists"
             );
         }
     }
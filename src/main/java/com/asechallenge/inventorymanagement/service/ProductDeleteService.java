@@ -2,6 +2,7 @@ package com.asechallenge.inventorymanagement.service;
 
 import org.springframework.stereotype.Service;
 
+import com.asechallenge.inventorymanagement.entity.Product;
 import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
 import com.asechallenge.inventorymanagement.util.SkuGenerator;
 import com.asechallenge.inventorymanagement.repository.ProductRepository;
@@ -11,9 +12,19 @@ import jakarta.transaction.Transactional;
 @Service
 public class ProductDeleteService {
     private final ProductRepository productRepository;
-
-    public ProductDeleteService(ProductRepository productRepository) {
+    private final ProductCache productCache;
+    private final HotStockLedger hotStockLedger;
+    private final StockWriteBehindBuffer writeBehindBuffer;
+    private final StockMovementJournal movementJournal;
+
+    public ProductDeleteService(ProductRepository productRepository, ProductCache productCache,
+                                HotStockLedger hotStockLedger, StockWriteBehindBuffer writeBehindBuffer,
+                                StockMovementJournal movementJournal) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.hotStockLedger = hotStockLedger;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.movementJournal = movementJournal;
     }
 
 
@@ -21,14 +32,16 @@ public class ProductDeleteService {
     public boolean deleteProduct(String name, String variant) {
         String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
 
-        int deletedRows = productRepository.deleteBySkuIgnoreCase(sku);
-
-        if (deletedRows == 0) {
-            throw new ProductNotFoundException(
-                String.format("Cannot delete product. Product with name '%s' and variant '%s' not found.", 
-                            name, variant)
-            );
-        }
+        hotStockLedger.discard(sku);
+        Product deleted = productRepository.deleteReturning(sku)
+                .orElseThrow(() -> new ProductNotFoundException(
+                    "Cannot delete product. Product with name '%s' and variant '%s' not found.", 
+                    name, variant
+                ));
+        // Buffered deltas of the deleted row are dropped, so a new product with this SKU starts from its own stock
+        writeBehindBuffer.discard(sku);
+        productCache.evict(sku);
+        movementJournal.recordDeleted(deleted);
 
         return true;
     } 
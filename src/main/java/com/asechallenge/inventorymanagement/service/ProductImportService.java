@@ -0,0 +1,259 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.dto.ProductCreationRequestDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportErrorDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO.Format;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON catalog into the products table. Rows are parsed and
+ * validated as they are read, and inserted as one JDBC batch per chunk, each chunk
+ * in its own transaction. Chunks committed before a failure stay imported.
+ */
+@Service
+public class ProductImportService {
+
+    private static final String DUPLICATE_MESSAGE = "Product with given name and variant already exists";
+
+    private final ProductRepository productRepository;
+    private final ProductCreationService creationService;
+    private final StockMovementJournal movementJournal;
+    private final InventoryMetrics inventoryMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ProductImportService(ProductRepository productRepository,
+                                ProductCreationService creationService,
+                                StockMovementJournal movementJournal,
+                                InventoryMetrics inventoryMetrics,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${inventory.import.chunk-size:5000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("inventory.import.chunk-size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.creationService = creationService;
+        this.movementJournal = movementJournal;
+        this.inventoryMetrics = inventoryMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductImportResponseDTO importProducts(InputStream body, Format format) {
+        Import run = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read the import body", ex);
+        }
+        run.flush();
+        return new ProductImportResponseDTO(format, run.received, run.imported, run.errors);
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header row is required");
+        }
+        CsvColumns columns = new CsvColumns(header);
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            int line = csv.getRecordLine();
+            try {
+                run.accept(line, columns.toRequest(fields));
+            } catch (IllegalArgumentException ex) {
+                run.reject(line, null, ex.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        String json;
+        int line = 0;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            ProductCreationRequestDTO request;
+            try {
+                request = objectMapper.readValue(json, ProductCreationRequestDTO.class);
+            } catch (UnrecognizedPropertyException ex) {
+                run.reject(line, null, String.format("Unknown property: %s", ex.getPropertyName()));
+                continue;
+            } catch (JsonProcessingException ex) {
+                run.reject(line, null, "Malformed JSON");
+                continue;
+            }
+            run.accept(line, request);
+        }
+    }
+
+    // State of one import: the current chunk plus the running totals and error report
+    private class Import {
+
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+        private final Map<String, Integer> firstLineBySku = new HashMap<>();
+        private final List<Product> chunk = new ArrayList<>(chunkSize);
+        private final List<Integer> chunkLines = new ArrayList<>(chunkSize);
+        private int received;
+        private int imported;
+
+        void accept(int line, ProductCreationRequestDTO request) {
+            received++;
+            Set<ConstraintViolation<ProductCreationRequestDTO>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                errors.add(new ProductImportErrorDTO(line, null, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                return;
+            }
+
+            Product product = creationService.newProduct(request);
+            Integer firstLine = firstLineBySku.putIfAbsent(product.getSku().toLowerCase(Locale.ROOT), line);
+            if (firstLine != null) {
+                errors.add(new ProductImportErrorDTO(line, product.getSku(),
+                        String.format("Duplicate of line %d", firstLine)));
+                return;
+            }
+
+            chunk.add(product);
+            chunkLines.add(line);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int line, String sku, String message) {
+            received++;
+            errors.add(new ProductImportErrorDTO(line, sku, message));
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // Existing products are detected by the unique indexes during the insert itself
+            int[] insertedRows = transactionTemplate.execute(
+                    status -> productRepository.insertProductsIgnoringDuplicates(chunk));
+            int duplicates = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                if (insertedRows[i] > 0) {
+                    imported++;
+                    movementJournal.recordCreated(chunk.get(i));
+                } else {
+                    duplicates++;
+                    errors.add(new ProductImportErrorDTO(chunkLines.get(i), chunk.get(i).getSku(), DUPLICATE_MESSAGE));
+                }
+            }
+            inventoryMetrics.duplicateCreates(duplicates);
+            chunk.clear();
+            chunkLines.clear();
+        }
+    }
+
+    // Maps CSV header names (case-insensitive) to request properties
+    private static class CsvColumns {
+
+        private static final List<String> KNOWN = List.of(
+                "name", "variant", "description", "stockquantity", "lowstockthreshold");
+
+        private final Map<String, Integer> indexByColumn = new HashMap<>();
+        private final int width;
+
+        CsvColumns(List<String> header) {
+            this.width = header.size();
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (!KNOWN.contains(column)) {
+                    throw new IllegalArgumentException(String.format("Unknown CSV column: %s", header.get(i).trim()));
+                }
+                if (indexByColumn.putIfAbsent(column, i) != null) {
+                    throw new IllegalArgumentException(String.format("Duplicate CSV column: %s", header.get(i).trim()));
+                }
+            }
+            if (!indexByColumn.containsKey("name")) {
+                throw new IllegalArgumentException("CSV header must contain a name column");
+            }
+        }
+
+        ProductCreationRequestDTO toRequest(List<String> fields) {
+            if (fields.size() > width) {
+                throw new IllegalArgumentException(
+                        String.format("Expected %d columns but found %d", width, fields.size()));
+            }
+            ProductCreationRequestDTO request = new ProductCreationRequestDTO();
+            request.setName(field(fields, "name"));
+            request.setVariant(field(fields, "variant"));
+            request.setDescription(field(fields, "description"));
+            request.setStockQuantity(number(fields, "stockquantity", "stockQuantity"));
+            request.setLowStockThreshold(number(fields, "lowstockthreshold", "lowStockThreshold"));
+            return request;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = indexByColumn.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+
+        private Long number(List<String> fields, String column, String property) {
+            String value = field(fields, column);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(String.format("%s must be a whole number", property));
+            }
+        }
+    }
+}
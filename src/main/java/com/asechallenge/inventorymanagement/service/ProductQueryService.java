@@ -1,54 +1,173 @@
 package com.asechallenge.inventorymanagement.service;
 
+import com.asechallenge.inventorymanagement.dto.ProductKeyDTO;
+import com.asechallenge.inventorymanagement.dto.ProductLookupResultDTO;
+import com.asechallenge.inventorymanagement.dto.ProductResponseDTO;
 import com.asechallenge.inventorymanagement.entity.Product;
 import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
 import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.util.ProductCursor;
 import com.asechallenge.inventorymanagement.util.SkuGenerator;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
+// Read-only transactions run on the read pool (see DataSourceConfig). With the read store
+// enabled, SKU lookups and the full listing are answered from memory instead.
 @Service
+@Transactional(readOnly = true)
 public class ProductQueryService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_SEARCH_RESULTS = 100;
+
+    // Shortest name the search index can match as a substring
+    private static final int MIN_INDEXED_NAME_LENGTH = 3;
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final HotStockLedger hotStockLedger;
+    private final StockWriteBehindBuffer writeBehindBuffer;
+    private final ProductReadStore readStore;
 
-    public ProductQueryService(ProductRepository productRepository) {
+    public ProductQueryService(ProductRepository productRepository, ProductCache productCache,
+                               HotStockLedger hotStockLedger, StockWriteBehindBuffer writeBehindBuffer,
+                               ProductReadStore readStore) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.hotStockLedger = hotStockLedger;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.readStore = readStore;
     }
 
+    // Listings report committed rows, matching the catalog version their ETag is built from
     public List<Product> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        if (products.isEmpty()) {
-            throw new ProductNotFoundException("No products are currently available in the inventory.");
-        }
-        return products;
+        return readStore.isReady() ? readStore.findAll() : productRepository.findAll();
+    }
+
+    // The store's own version while it serves reads, so list ETags always match the content sent
+    public long getCatalogVersion() {
+        return readStore.isReady() ? readStore.getCatalogVersion() : productRepository.findCatalogVersion();
+    }
+
+    public Slice<Product> getProductsPage(String cursor, int limit) {
+        checkPageSize(limit);
+
+        // One extra row tells whether another page exists without a COUNT query
+        List<Product> rows = productRepository.findByIdGreaterThanOrderByIdAsc(
+                ProductCursor.decode(cursor), Limit.of(limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<Product> content = hasNext ? rows.subList(0, limit) : rows;
+
+        return new SliceImpl<>(content, PageRequest.ofSize(limit), hasNext);
+    }
+
+    public void streamAllProducts(Consumer<Product> consumer) {
+        productRepository.forEachProduct(consumer);
     }
 
+    // Cache hits skip the transaction; a miss reads in the repository's own read-only one
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Product getProductByNameAndVariant(String name, String variant) {
         String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
-        return productRepository.findBySkuIgnoreCase(sku)
+        Optional<Product> product = readStore.isReady()
+                ? readStore.find(sku)
+                : productCache.get(sku, productRepository::findBySkuIgnoreCase);
+        return product
+                .map(this::projectStock)
                 .orElseThrow(() ->
                         new ProductNotFoundException(
-                            String.format("No product found for name '%s' and variant '%s'", name.trim(), variant.trim())
+                            "No product found for name '%s' and variant '%s'", name.trim(), variant.trim()
                         ));
     }
 
+    // Cache misses of the whole request are read with one IN query per 500 SKUs, in one read-only transaction
+    public List<ProductLookupResultDTO> lookupProducts(List<ProductKeyDTO> keys) {
+        List<String> skus = new ArrayList<>(keys.size());
+        for (ProductKeyDTO key : keys) {
+            skus.add(SkuGenerator.generateSKU(key.getName().trim(), normalizeVariant(key.getVariant())));
+        }
+
+        Map<String, Product> products = readStore.isReady()
+                ? findInReadStore(skus)
+                : productCache.getAll(skus, productRepository::findAllBySkus);
+
+        List<ProductLookupResultDTO> results = new ArrayList<>(skus.size());
+        for (int i = 0; i < skus.size(); i++) {
+            Product product = products.get(skus.get(i));
+            results.add((product == null)
+                    ? new ProductLookupResultDTO(i, skus.get(i), ProductLookupResultDTO.Status.NOT_FOUND, null)
+                    : new ProductLookupResultDTO(i, product.getSku(), ProductLookupResultDTO.Status.FOUND,
+                            new ProductResponseDTO(projectStock(product))));
+        }
+        return results;
+    }
+
     public List<Product> getProductsByName(String name) {
-        List<Product> products = productRepository.findProductsByNameContainingIgnoreCase(name.trim());
-        if (products.isEmpty()) {
-            throw new ProductNotFoundException(
-                String.format("No products found matching name '%s'", name.trim())
+        String trimmed = name.trim();
+        return trimmed.length() >= MIN_INDEXED_NAME_LENGTH
+                ? productRepository.findByNameSubstring(trimmed)
+                : productRepository.findProductsByNameContainingIgnoreCase(trimmed);
+    }
+
+    public List<Product> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException(
+                String.format("Search limit must be between 1 and %d", MAX_SEARCH_RESULTS)
             );
         }
-        return products;
+        return productRepository.searchProducts(query.trim(), limit);
     }
 
     public List<Product> getLowStockProducts() {
-        List<Product> products = productRepository.findLowStockProducts();
-        if (products.isEmpty()) {
-           throw new ProductNotFoundException("No products are below their low stock threshold.");
+        return productRepository.findLowStockProducts();
+    }
+
+    // Most urgent first: ordered by shortfall (threshold - stock), descending
+    public List<Product> getLowStockProducts(int page, int size) {
+        checkPageSize(size);
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index must not be negative");
+        }
+        return productRepository.findLowStockProducts(PageRequest.of(page, size));
+    }
+
+    // Stock changes acknowledged in memory but not yet written to the row the product was read from
+    private Product projectStock(Product product) {
+        return hotStockLedger.project(writeBehindBuffer.project(product));
+    }
+
+    private Map<String, Product> findInReadStore(List<String> skus) {
+        Map<String, Product> products = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String sku : skus) {
+            readStore.find(sku).ifPresent(product -> products.put(sku, product));
         }
         return products;
-   }
+    }
+
+    private String normalizeVariant(String variant) {
+        return (variant == null) ? "" : variant.trim();
+    }
+
+    private void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                String.format("Page size must be between 1 and %d", MAX_PAGE_SIZE)
+            );
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,547 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.ProductRepositoryCustom;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Read-mostly mode (opt-in): the whole catalog held in primitive arrays, so
+ * ProductQueryService answers SKU lookups and full listings without SQLite or a
+ * persistence context, and without millions of long-lived objects for the
+ * collector to trace. The low-stock set stays in SQLite, where a trigger keeps it
+ * materialized (see low_stock_products in schema.sql).
+ *
+ * Per product the store keeps stock, threshold and version in long[] columns and
+ * one int offset into a shared byte arena holding its SKU, name, variant and
+ * description as length-prefixed UTF-8. SKUs are found through an open-addressing
+ * int[] index. Product objects are only created for the rows a request returns.
+ *
+ * A single refresh thread keeps the store current. It runs right after every
+ * committed write transaction, and every refresh interval for writes made outside
+ * this process. It reads only the rows whose version moved past the store's catalog
+ * version, plus the deletions logged since (see product_deletions in schema.sql).
+ * Readers use StampedLock optimistic reads and never block each other.
+ */
+@Component
+public class ProductReadStore implements TransactionExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductReadStore.class);
+
+    private final boolean enabled;
+    private final long refreshIntervalMs;
+    private final ProductRepository productRepository;
+
+    // Looked up lazily: the transaction manager itself is built with this listener
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Replaced whole on reload, otherwise changed in place by the refresh thread under the write lock
+    private volatile Table table = new Table(0);
+    private volatile long catalogVersion;
+    private volatile boolean ready;
+    private volatile boolean running;
+    private Thread refresher;
+    private TransactionTemplate readTransaction;
+
+    public ProductReadStore(
+            @Value("${inventory.products.read-store.enabled:false}") boolean enabled,
+            @Value("${inventory.products.read-store.refresh-interval-ms:1000}") long refreshIntervalMs,
+            ProductRepository productRepository,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.productRepository = productRepository;
+        this.transactionManager = transactionManager;
+        if (enabled) {
+            Gauge.builder("inventory.read.store.products", this, store -> store.table.liveRows)
+                    .description("Products held by the read-mostly store")
+                    .register(meterRegistry);
+            Gauge.builder("inventory.read.store.bytes", this, store -> store.table.footprintBytes())
+                    .description("Memory held by the read-mostly store's arrays")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    // Queries fall back to the database until the catalog has been loaded
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Loaded before readiness flips to ACCEPTING_TRAFFIC
+        load();
+        running = true;
+        refresher = new Thread(this::refreshLoop, "read-store-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (refresher != null) {
+            LockSupport.unpark(refresher);
+            refresher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (ready && commitFailure == null && !transaction.isReadOnly()) {
+            LockSupport.unpark(refresher);
+        }
+    }
+
+    // The catalog version the store's contents correspond to
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public Optional<Product> find(String sku) {
+        byte[] key = sku.getBytes(StandardCharsets.UTF_8);
+        int hash = Table.hash(key, 0, key.length);
+
+        long stamp = lock.tryOptimisticRead();
+        RowCopy row = null;
+        try {
+            row = table.copy(key, hash);
+        } catch (RuntimeException ex) {
+            // Torn read while the refresh thread was writing; validate fails and the read is retried
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                row = table.copy(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        // Arena bytes are never overwritten, so decoding needs no lock
+        return Optional.ofNullable(row).map(RowCopy::toProduct);
+    }
+
+    // Every product in id order
+    public List<Product> findAll() {
+        Columns columns = columns();
+        List<Product> products = new ArrayList<>(columns.size);
+        for (int i = 0; i < columns.size; i++) {
+            products.add(columns.toProduct(i));
+        }
+        return products;
+    }
+
+    // Live rows copied out under the read lock
+    private Columns columns() {
+        long stamp = lock.readLock();
+        try {
+            return table.columns();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void load() {
+        Table loaded = new Table(Math.max(16, (int) productRepository.count()));
+        long version = readTransaction().execute(status -> {
+            long current = productRepository.findCatalogVersion();
+            productRepository.forEachProduct(loaded::append);
+            return current;
+        });
+        long stamp = lock.writeLock();
+        try {
+            table = loaded;
+            catalogVersion = version;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        ready = true;
+        log.info("Read store loaded {} products at catalog version {} ({} KB)",
+                loaded.liveRows, version, loaded.footprintBytes() / 1024);
+    }
+
+    void refresh() {
+        long since = catalogVersion;
+        Changes changes = readTransaction().execute(status -> {
+            long current = productRepository.findCatalogVersion();
+            if (current == since || current - since >= ProductRepositoryCustom.DELETION_LOG_RETENTION) {
+                return new Changes(current, null, null);
+            }
+            return new Changes(current, productRepository.findSkusDeletedSince(since),
+                    productRepository.findChangedSince(since));
+        });
+        if (changes.version() == since) {
+            return;
+        }
+        if (changes.changed() == null) {
+            // Fell behind the deletion log
+            load();
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            for (String sku : changes.deleted()) {
+                table.remove(sku);
+            }
+            for (Product product : changes.changed()) {
+                table.upsert(product);
+            }
+            catalogVersion = changes.version();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (table.needsCompaction()) {
+            load();
+        }
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs));
+            if (!running) {
+                return;
+            }
+            try {
+                refresh();
+            } catch (RuntimeException ex) {
+                log.warn("Read store refresh failed; retrying in {} ms", refreshIntervalMs, ex);
+            }
+        }
+    }
+
+    private TransactionTemplate readTransaction() {
+        if (readTransaction == null) {
+            readTransaction = new TransactionTemplate(transactionManager.getObject());
+            readTransaction.setReadOnly(true);
+        }
+        return readTransaction;
+    }
+
+    private record Changes(long version, List<String> deleted, List<Product> changed) {}
+
+    // One row's values, taken under the lock and turned into a Product after it
+    private record RowCopy(byte[] arena, int offset, long stock, long threshold, long version) {
+        Product toProduct() {
+            return Table.toProduct(arena, offset, stock, threshold, version);
+        }
+    }
+
+    // Live rows in id order, copied for a scan
+    private record Columns(int size, byte[] arena, int[] offset, long[] stock, long[] threshold, long[] version) {
+        Product toProduct(int i) {
+            return Table.toProduct(arena, offset[i], stock[i], threshold[i], version[i]);
+        }
+    }
+
+    /**
+     * The arrays behind the store. Rows are appended in id order and never move;
+     * a deleted row keeps its slot with offset -1 until the next reload. Arena
+     * bytes are only ever appended, so a description change writes a new record
+     * and leaves the old one as garbage.
+     */
+    private static final class Table {
+
+        private static final int DELETED = -1;
+
+        private int rows;
+        private int liveRows;
+        private int[] offset;
+        private long[] stock;
+        private long[] threshold;
+        private long[] version;
+
+        private byte[] arena;
+        private int arenaSize;
+        private long garbageBytes;
+
+        // Open addressing with linear probing: row + 1, 0 for an empty slot
+        private int[] index;
+
+        Table(int capacity) {
+            offset = new int[capacity];
+            stock = new long[capacity];
+            threshold = new long[capacity];
+            version = new long[capacity];
+            arena = new byte[Math.max(1024, capacity * 48)];
+            index = new int[tableSizeFor(capacity)];
+        }
+
+        void append(Product product) {
+            if (rows == offset.length) {
+                int capacity = offset.length * 2;
+                offset = Arrays.copyOf(offset, capacity);
+                stock = Arrays.copyOf(stock, capacity);
+                threshold = Arrays.copyOf(threshold, capacity);
+                version = Arrays.copyOf(version, capacity);
+            }
+            int row = rows++;
+            liveRows++;
+            set(row, product);
+            if (liveRows * 2L > index.length) {
+                rehash(index.length * 2);
+            }
+            insertIntoIndex(row);
+        }
+
+        void upsert(Product product) {
+            byte[] key = product.getSku().getBytes(StandardCharsets.UTF_8);
+            int row = find(key, hash(key, 0, key.length));
+            if (row < 0) {
+                append(product);
+                return;
+            }
+            garbageBytes += recordLength(offset[row]);
+            set(row, product);
+        }
+
+        void remove(String sku) {
+            byte[] key = sku.getBytes(StandardCharsets.UTF_8);
+            int hash = hash(key, 0, key.length);
+            int mask = index.length - 1;
+            for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                int row = index[slot] - 1;
+                if (skuEquals(row, key)) {
+                    garbageBytes += recordLength(offset[row]);
+                    offset[row] = DELETED;
+                    liveRows--;
+                    deleteSlot(slot);
+                    return;
+                }
+            }
+        }
+
+        // Reloading once half of the rows or arena bytes are dead keeps the footprint near the live data
+        boolean needsCompaction() {
+            return rows - liveRows > Math.max(1024, liveRows) || garbageBytes > Math.max(1 << 20, arenaSize / 2);
+        }
+
+        RowCopy copy(byte[] key, int hash) {
+            int row = find(key, hash);
+            return (row < 0) ? null : new RowCopy(arena, offset[row], stock[row], threshold[row], version[row]);
+        }
+
+        Columns columns() {
+            int[] rowOffset = new int[liveRows];
+            long[] rowStock = new long[liveRows];
+            long[] rowThreshold = new long[liveRows];
+            long[] rowVersion = new long[liveRows];
+            int size = 0;
+            for (int row = 0; row < rows; row++) {
+                if (offset[row] == DELETED) {
+                    continue;
+                }
+                rowOffset[size] = offset[row];
+                rowStock[size] = stock[row];
+                rowThreshold[size] = threshold[row];
+                rowVersion[size] = version[row];
+                size++;
+            }
+            return new Columns(size, arena, rowOffset, rowStock, rowThreshold, rowVersion);
+        }
+
+        long footprintBytes() {
+            return (long) offset.length * (Integer.BYTES + 3 * Long.BYTES)
+                    + (long) index.length * Integer.BYTES
+                    + arena.length;
+        }
+
+        private int find(byte[] key, int hash) {
+            int mask = index.length - 1;
+            // Bounded so a torn optimistic read cannot spin
+            for (int probe = 0, slot = hash & mask; probe < index.length && index[slot] != 0;
+                 probe++, slot = (slot + 1) & mask) {
+                int row = index[slot] - 1;
+                if (skuEquals(row, key)) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+
+        private void set(int row, Product product) {
+            offset[row] = appendRecord(product);
+            stock[row] = product.getStockQuantity();
+            threshold[row] = product.getLowStockThreshold();
+            version[row] = product.getVersion();
+        }
+
+        // Record: SKU, name, variant, description, each as varint(length + 1) then UTF-8 bytes; 0 for null
+        private int appendRecord(Product product) {
+            byte[][] fields = {
+                    utf8(product.getSku()), utf8(product.getName()),
+                    utf8(product.getVariant()), utf8(product.getDescription())};
+            int length = 0;
+            for (byte[] field : fields) {
+                length += 5 + ((field == null) ? 0 : field.length);
+            }
+            if (arenaSize + length > arena.length) {
+                // Readers still holding the old array see the records they copied offsets for
+                long capacity = Math.max((long) arena.length * 2, (long) arenaSize + length);
+                if (capacity > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Read store arena exceeds 2 GB");
+                }
+                arena = Arrays.copyOf(arena, (int) capacity);
+            }
+            int start = arenaSize;
+            for (byte[] field : fields) {
+                arenaSize = putVarint(arena, arenaSize, (field == null) ? 0 : field.length + 1);
+                if (field != null) {
+                    System.arraycopy(field, 0, arena, arenaSize, field.length);
+                    arenaSize += field.length;
+                }
+            }
+            return start;
+        }
+
+        private int recordLength(int start) {
+            int position = start;
+            for (int field = 0; field < 4; field++) {
+                long lengthAndNext = getVarint(arena, position);
+                position = (int) lengthAndNext + Math.max(0, (int) (lengthAndNext >>> 32) - 1);
+            }
+            return position - start;
+        }
+
+        private boolean skuEquals(int row, byte[] key) {
+            long lengthAndNext = getVarint(arena, offset[row]);
+            int start = (int) lengthAndNext;
+            int length = (int) (lengthAndNext >>> 32) - 1;
+            if (length != key.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (foldAscii(arena[start + i]) != foldAscii(key[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void insertIntoIndex(int row) {
+            long lengthAndNext = getVarint(arena, offset[row]);
+            int hash = hash(arena, (int) lengthAndNext, (int) (lengthAndNext >>> 32) - 1);
+            int mask = index.length - 1;
+            int slot = hash & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = row + 1;
+        }
+
+        // Backward-shift deletion: later entries of the same probe run move up, so lookups need no tombstones
+        private void deleteSlot(int slot) {
+            int mask = index.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+                long lengthAndNext = getVarint(arena, offset[index[next] - 1]);
+                int home = hash(arena, (int) lengthAndNext, (int) (lengthAndNext >>> 32) - 1) & mask;
+                // Move the entry unless its home slot lies cyclically in (hole, next]
+                boolean stays = (hole <= next) ? (hole < home && home <= next) : (hole < home || home <= next);
+                if (!stays) {
+                    index[hole] = index[next];
+                    hole = next;
+                }
+            }
+            index[hole] = 0;
+        }
+
+        private void rehash(int size) {
+            index = new int[size];
+            for (int row = 0; row < rows; row++) {
+                if (offset[row] != DELETED) {
+                    insertIntoIndex(row);
+                }
+            }
+        }
+
+        static Product toProduct(byte[] arena, int start, long stock, long threshold, long version) {
+            String[] fields = new String[4];
+            int position = start;
+            for (int field = 0; field < fields.length; field++) {
+                long lengthAndNext = getVarint(arena, position);
+                position = (int) lengthAndNext;
+                int length = (int) (lengthAndNext >>> 32) - 1;
+                if (length >= 0) {
+                    fields[field] = new String(arena, position, length, StandardCharsets.UTF_8);
+                    position += length;
+                }
+            }
+            return new Product(fields[1], fields[2], fields[3], stock, threshold, fields[0], version);
+        }
+
+        // Case-insensitive in ASCII only, like the SKU index's COLLATE NOCASE
+        static int hash(byte[] bytes, int start, int length) {
+            int hash = 0x811C9DC5;
+            for (int i = start; i < start + length; i++) {
+                hash = (hash ^ foldAscii(bytes[i])) * 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static int foldAscii(byte b) {
+            return (b >= 'A' && b <= 'Z') ? b + ('a' - 'A') : b;
+        }
+
+        private static int putVarint(byte[] bytes, int position, int value) {
+            while ((value & ~0x7F) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+            return position;
+        }
+
+        // Value in the high 32 bits, position after it in the low 32 bits
+        private static long getVarint(byte[] bytes, int position) {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return ((long) value << 32) | position;
+                }
+            }
+        }
+
+        private static byte[] utf8(String value) {
+            return (value == null) ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static int tableSizeFor(int rows) {
+            return Integer.highestOneBit(Math.max(16, rows) * 2 - 1) << 1;
+        }
+    }
+}
@@ -1,27 +1,72 @@
 package com.asechallenge.inventorymanagement.service;
 
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentRequestDTO;
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentResponseDTO;
+import com.asechallenge.inventorymanagement.dto.CartDecreaseRequestDTO;
 import com.asechallenge.inventorymanagement.dto.ProductCreationRequestDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO;
+import com.asechallenge.inventorymanagement.dto.ProductKeyDTO;
+import com.asechallenge.inventorymanagement.dto.ProductLookupResultDTO;
 import com.asechallenge.inventorymanagement.dto.ProductUpdateRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockAvailabilityDTO;
 import com.asechallenge.inventorymanagement.dto.StockChangeRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockReservationRequestDTO;
 import com.asechallenge.inventorymanagement.entity.Product;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Slice;
 
 public interface ProductService {
     Product createProduct(ProductCreationRequestDTO requestDTO);
 
     List<Product> getAllProducts();
 
+    // Changes whenever any product is created, deleted or has its stock or description changed
+    long getCatalogVersion();
+
+    Slice<Product> getProductsPage(String cursor, int limit);
+
+    void streamAllProducts(Consumer<Product> consumer);
+
     Product getProductByNameAndVariant(String name, String variant);
 
+    // One result per key, in request order; unknown products are reported as NOT_FOUND
+    List<ProductLookupResultDTO> lookupProducts(List<ProductKeyDTO> keys);
+
     List<Product> getProductsByName(String name);
 
+    List<Product> searchProducts(String query, int limit);
+
     Product updateProduct(String name, String variant, ProductUpdateRequestDTO requestDTO);
 
     Product increaseProduct(String name, String variant, StockChangeRequestDTO requestDTO);
 
     Product decreaseProduct(String name, String variant, StockChangeRequestDTO requestDTO);
 
+    Product markHot(String name, String variant);
+
+    void unmarkHot(String name, String variant);
+
+    StockReservation reserveStock(String name, String variant, StockReservationRequestDTO requestDTO);
+
+    Product commitReservation(String reservationId);
+
+    void releaseReservation(String reservationId);
+
+    StockAvailabilityDTO getStockAvailability(String name, String variant);
+
+    BatchStockAdjustmentResponseDTO adjustStockBatch(BatchStockAdjustmentRequestDTO requestDTO);
+
+    // All lines or none; the updated products in SKU order
+    List<Product> decreaseCart(CartDecreaseRequestDTO requestDTO);
+
+    ProductImportResponseDTO importProducts(InputStream body, ProductImportResponseDTO.Format format);
+
     List<Product> getLowStockProducts();
 
+    List<Product> getLowStockProducts(int page, int size);
+
     boolean deleteProduct(String name, String variant);
 }
\ No newline at end of file
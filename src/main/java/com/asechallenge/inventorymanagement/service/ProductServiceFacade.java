@@ -1,13 +1,24 @@
 package com.asechallenge.inventorymanagement.service;
 
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentRequestDTO;
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentResponseDTO;
+import com.asechallenge.inventorymanagement.dto.CartDecreaseRequestDTO;
 import com.asechallenge.inventorymanagement.dto.ProductCreationRequestDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO;
+import com.asechallenge.inventorymanagement.dto.ProductKeyDTO;
+import com.asechallenge.inventorymanagement.dto.ProductLookupResultDTO;
 import com.asechallenge.inventorymanagement.dto.ProductUpdateRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockAvailabilityDTO;
 import com.asechallenge.inventorymanagement.dto.StockChangeRequestDTO;
+import com.asechallenge.inventorymanagement.dto.StockReservationRequestDTO;
 import com.asechallenge.inventorymanagement.entity.Product;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class ProductServiceFacade implements ProductService {
@@ -16,15 +27,24 @@ public class ProductServiceFacade implements ProductService {
     private final ProductQueryService queryService;
     private final ProductUpdateService updateService;
     private final ProductDeleteService deleteService;
+    private final ProductBatchUpdateService batchUpdateService;
+    private final ProductImportService importService;
+    private final StockReservationService reservationService;
 
     public ProductServiceFacade(ProductCreationService creationService,
                                 ProductQueryService queryService,
                                 ProductUpdateService updateService,
-                                ProductDeleteService deleteService) {
+                                ProductDeleteService deleteService,
+                                ProductBatchUpdateService batchUpdateService,
+                                ProductImportService importService,
+                                StockReservationService reservationService) {
         this.creationService = creationService;
         this.queryService = queryService;
         this.updateService = updateService;
         this.deleteService = deleteService;
+        this.batchUpdateService = batchUpdateService;
+        this.importService = importService;
+        this.reservationService = reservationService;
     }
 
     @Override
@@ -37,21 +57,51 @@ public class ProductServiceFacade implements ProductService {
         return queryService.getAllProducts();
     }
 
+    @Override
+    public long getCatalogVersion() {
+        return queryService.getCatalogVersion();
+    }
+
+    @Override
+    public Slice<Product> getProductsPage(String cursor, int limit) {
+        return queryService.getProductsPage(cursor, limit);
+    }
+
+    @Override
+    public void streamAllProducts(Consumer<Product> consumer) {
+        queryService.streamAllProducts(consumer);
+    }
+
     @Override
     public Product getProductByNameAndVariant(String name, String variant) {
         return queryService.getProductByNameAndVariant(name, variant);
     }
 
+    @Override
+    public List<ProductLookupResultDTO> lookupProducts(List<ProductKeyDTO> keys) {
+        return queryService.lookupProducts(keys);
+    }
+
     @Override
     public List<Product> getProductsByName(String name) {
         return queryService.getProductsByName(name);
     }
 
+    @Override
+    public List<Product> searchProducts(String query, int limit) {
+        return queryService.searchProducts(query, limit);
+    }
+
     @Override
     public List<Product> getLowStockProducts() {
         return queryService.getLowStockProducts();
     }
 
+    @Override
+    public List<Product> getLowStockProducts(int page, int size) {
+        return queryService.getLowStockProducts(page, size);
+    }
+
      @Override
     public Product updateProduct(String name, String variant, ProductUpdateRequestDTO requestDTO) {
         return updateService.updateProduct(name, variant, requestDTO);
@@ -67,6 +117,51 @@ public class ProductServiceFacade implements ProductService {
         return updateService.decreaseStock(name, variant, requestDTO);
     }
 
+    @Override
+    public Product markHot(String name, String variant) {
+        return updateService.markHot(name, variant);
+    }
+
+    @Override
+    public void unmarkHot(String name, String variant) {
+        updateService.unmarkHot(name, variant);
+    }
+
+    @Override
+    public StockReservation reserveStock(String name, String variant, StockReservationRequestDTO requestDTO) {
+        return reservationService.hold(name, variant, requestDTO);
+    }
+
+    @Override
+    public Product commitReservation(String reservationId) {
+        return reservationService.commit(reservationId);
+    }
+
+    @Override
+    public void releaseReservation(String reservationId) {
+        reservationService.release(reservationId);
+    }
+
+    @Override
+    public StockAvailabilityDTO getStockAvailability(String name, String variant) {
+        return reservationService.getAvailability(name, variant);
+    }
+
+    @Override
+    public BatchStockAdjustmentResponseDTO adjustStockBatch(BatchStockAdjustmentRequestDTO requestDTO) {
+        return batchUpdateService.adjustStock(requestDTO);
+    }
+
+    @Override
+    public List<Product> decreaseCart(CartDecreaseRequestDTO requestDTO) {
+        return updateService.decreaseCart(requestDTO.getLines());
+    }
+
+    @Override
+    public ProductImportResponseDTO importProducts(InputStream body, ProductImportResponseDTO.Format format) {
+        return importService.importProducts(body, format);
+    }
+
     @Override
     public boolean deleteProduct(String name, String variant){
         return deleteService.deleteProduct(name, variant);
@@ -1,10 +1,15 @@
 package com.asechallenge.inventorymanagement.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.asechallenge.inventorymanagement.dto.CartLineDTO;
 import com.asechallenge.inventorymanagement.dto.ProductUpdateRequestDTO;
 import com.asechallenge.inventorymanagement.dto.StockChangeRequestDTO;
 import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
 import com.asechallenge.inventorymanagement.repository.ProductRepository;
 import com.asechallenge.inventorymanagement.util.SkuGenerator;
 
@@ -13,13 +18,38 @@ import jakarta.transaction.Transactional;
 import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
 import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Service
 public class ProductUpdateService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductUpdateService.class);
+
     private final ProductRepository productRepository;
+    private final StockWriteBehindBuffer writeBehindBuffer;
+    private final HotStockLedger hotStockLedger;
+    private final StockReservationIndex reservationIndex;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryMetrics inventoryMetrics;
 
-    public ProductUpdateService(ProductRepository productRepository) {
+    public ProductUpdateService(ProductRepository productRepository,
+                                StockWriteBehindBuffer writeBehindBuffer,
+                                HotStockLedger hotStockLedger,
+                                StockReservationIndex reservationIndex,
+                                ProductCache productCache,
+                                ApplicationEventPublisher eventPublisher,
+                                InventoryMetrics inventoryMetrics) {
         this.productRepository = productRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.hotStockLedger = hotStockLedger;
+        this.reservationIndex = reservationIndex;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.inventoryMetrics = inventoryMetrics;
     }
 
      @Transactional
@@ -30,17 +60,12 @@ public class ProductUpdateService {
 
         String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
 
-        int updatedRows = productRepository.updateDescriptionBySkuIgnoreCase(sku, requestDTO.getDescription());
-        if (updatedRows == 0) {
-            throw new ProductNotFoundException(
-                String.format("Cannot update description. Product not found for name '%s' and variant '%s'", name, variant)
-            );
-        }
-
-        return productRepository.findBySkuIgnoreCase(sku)
+        Product updated = productRepository.updateDescriptionReturning(sku, requestDTO.getDescription())
                 .orElseThrow(() -> new ProductNotFoundException(
-                        String.format("Product not found after update for name '%s' and variant '%s'", name, variant)
+                        "Cannot update description. Product not found for name '%s' and variant '%s'", name, variant
                 ));
+        productCache.put(updated);
+        return updated;
     }
 
     @Transactional
@@ -51,14 +76,20 @@ public class ProductUpdateService {
 
         String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
 
-        int updatedRows = productRepository.increaseStockBySkuIgnoreCase(sku, requestDTO.getQuantity());
-        if (updatedRows == 0) {
-            throw new ProductNotFoundException(
-                        String.format("Product with name '%s' and variant '%s' not found", name, variant)
-                );
+        // Hot SKUs are served from the striped ledger; null means the SKU is not hot
+        Product updated = hotStockLedger.increase(sku, requestDTO.getQuantity());
+        if (updated == null && writeBehindBuffer.isEnabled()) {
+            updated = writeBehindBuffer.increase(sku, requestDTO.getQuantity(), name, variant);
+        } else if (updated == null) {
+            updated = productRepository.increaseStockReturning(sku, requestDTO.getQuantity())
+                    .orElseThrow(() -> new ProductNotFoundException(
+                            "Product with name '%s' and variant '%s' not found", name, variant
+                    ));
         }
 
-        return productRepository.findBySkuIgnoreCase(sku).get();
+        productCache.put(updated);
+        eventPublisher.publishEvent(new StockChangedEvent(updated, requestDTO.getQuantity()));
+        return updated;
     }
 
     @Transactional
@@ -68,24 +99,216 @@ public class ProductUpdateService {
         }
 
         String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
+        try {
+            // Units held by open reservations are not available to direct decreases
+            reservationIndex.takeUnreserved(sku, requestDTO.getQuantity());
+            return applyDecrease(sku, name, variant, requestDTO.getQuantity());
+        } catch (InvalidStockValueException ex) {
+            inventoryMetrics.stockOut();
+            throw ex;
+        }
+    }
 
-        // Check if product exists
-        Product product = productRepository.findBySkuIgnoreCase(sku)
-                .orElseThrow(() -> new ProductNotFoundException(
-                        String.format("Product with name '%s' and variant '%s' not found", name, variant)
-                ));
+    // Commits a held decrease; the reservation's own units are still counted as held here
+    @Transactional
+    public Product decreaseReservedStock(StockReservation reservation) {
+        try {
+            return applyDecrease(reservation.getSku(), reservation.getName(), reservation.getVariant(),
+                    reservation.getQuantity());
+        } catch (InvalidStockValueException ex) {
+            inventoryMetrics.stockOut();
+            throw ex;
+        }
+    }
 
-        if (product.getStockQuantity() < requestDTO.getQuantity()) {
-            throw new InvalidStockValueException(
-                    String.format("Cannot decrease stock by %d. Only %d items available.", 
-                            requestDTO.getQuantity(), product.getStockQuantity())
+    /**
+     * Decreases every line of a cart in one transaction, or none of them. Lines of the
+     * same SKU are merged and applied in SKU order, and all database rows are checked
+     * with one query before anything is written. Returns the updated products in SKU order.
+     */
+    @Transactional
+    public List<Product> decreaseCart(List<CartLineDTO> lines) {
+        Map<String, CartLine> cart = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (CartLineDTO line : lines) {
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new InvalidStockValueException("Quantity to decrease must be greater than 0 and an Integer");
+            }
+            String name = line.getName().trim();
+            String variant = (line.getVariant() == null) ? "" : line.getVariant().trim();
+            String sku = SkuGenerator.generateSKU(name, variant);
+            cart.computeIfAbsent(sku, k -> new CartLine(sku, name, variant)).quantity += line.getQuantity();
+        }
+
+        try {
+            return applyCart(cart);
+        } catch (InvalidStockValueException ex) {
+            inventoryMetrics.stockOut();
+            throw ex;
+        }
+    }
+
+    public Product markHot(String name, String variant) {
+        String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
+        try {
+            // Pending write-behind deltas must reach the row before the ledger takes its snapshot
+            return writeBehindBuffer.handOff(sku, () -> hotStockLedger.promote(sku));
+        } catch (ProductNotFoundException ex) {
+            throw new ProductNotFoundException(
+                    "Product with name '%s' and variant '%s' not found", name, variant
             );
         }
+    }
+
+    public void unmarkHot(String name, String variant) {
+        String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
+        if (!hotStockLedger.isHot(sku)) {
+            throw new ProductNotFoundException(
+                    "Product with name '%s' and variant '%s' is not marked hot", name, variant
+            );
+        }
+        hotStockLedger.demote(sku);
+        writeBehindBuffer.reopen(sku);
+        productCache.evict(sku);
+    }
+
+    private Product applyDecrease(String sku, String name, String variant, long quantity) {
+        // Hot SKUs are served from the striped ledger; null means the SKU is not hot
+        Product updated = hotStockLedger.decrease(sku, quantity);
+        if (updated == null && writeBehindBuffer.isEnabled()) {
+            updated = writeBehindBuffer.decrease(sku, quantity, name, variant);
+        } else if (updated == null) {
+            // The conditional UPDATE is the only oversell check; the row is only read again when it rejects
+            updated = productRepository.decreaseStockReturning(sku, quantity)
+                    .orElseThrow(() -> rejectDecrease(sku, name, variant, quantity));
+        }
+
+        productCache.put(updated);
+        eventPublisher.publishEvent(new StockChangedEvent(updated, -quantity));
+        return updated;
+    }
+
+    private List<Product> applyCart(Map<String, CartLine> cart) {
+        List<CartLine> rowLines = new ArrayList<>();
+        List<CartLine> memoryLines = new ArrayList<>();
+        for (CartLine line : cart.values()) {
+            reservationIndex.takeUnreserved(line.sku, line.quantity);
+            if (hotStockLedger.isHot(line.sku) || writeBehindBuffer.isEnabled()) {
+                memoryLines.add(line);
+            } else {
+                rowLines.add(line);
+            }
+        }
+
+        List<String> rowSkus = rowLines.stream().map(line -> line.sku).toList();
+        Map<String, Long> onHand = productRepository.findStockQuantitiesBySkus(rowSkus);
+        for (CartLine line : rowLines) {
+            Long available = onHand.get(line.sku);
+            if (available == null) {
+                throw new ProductNotFoundException(
+                        "Product with name '%s' and variant '%s' not found", line.name, line.variant
+                );
+            }
+            if (available < line.quantity) {
+                throw new InvalidStockValueException(
+                        "Cannot decrease stock of '%s' by %d. Only %d items available.",
+                        line.sku, line.quantity, available
+                );
+            }
+        }
+
+        // Ledger and write-behind decreases are outside the transaction, so a failed cart undoes them by hand
+        Map<String, Product> updated = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<CartLine> applied = new ArrayList<>();
+        try {
+            for (CartLine line : memoryLines) {
+                Product product = decreaseInMemory(line);
+                applied.add(line);
+                updated.put(line.sku, product);
+            }
+            if (!rowLines.isEmpty()) {
+                decreaseRows(rowLines).forEach(product -> updated.put(product.getSku(), product));
+            }
+        } catch (RuntimeException ex) {
+            applied.forEach(this::undoInMemory);
+            throw ex;
+        }
+
+        for (Product product : updated.values()) {
+            productCache.put(product);
+            eventPublisher.publishEvent(new StockChangedEvent(product, -cart.get(product.getSku()).quantity));
+        }
+        return new ArrayList<>(updated.values());
+    }
+
+    private Product decreaseInMemory(CartLine line) {
+        Product product = hotStockLedger.decrease(line.sku, line.quantity);
+        if (product != null) {
+            line.appliedTo = CartLine.Target.LEDGER;
+            return product;
+        }
+        if (writeBehindBuffer.isEnabled()) {
+            line.appliedTo = CartLine.Target.WRITE_BEHIND;
+            return writeBehindBuffer.decrease(line.sku, line.quantity, line.name, line.variant);
+        }
+        // Demoted since the cart was split: the row update rolls back with the transaction
+        line.appliedTo = CartLine.Target.ROW;
+        return productRepository.decreaseStockReturning(line.sku, line.quantity)
+                .orElseThrow(() -> rejectDecrease(line.sku, line.name, line.variant, line.quantity));
+    }
+
+    private void undoInMemory(CartLine line) {
+        if (line.appliedTo == CartLine.Target.LEDGER && hotStockLedger.increase(line.sku, line.quantity) == null) {
+            // Demoted in between: the demotion already wrote the decrease to the row
+            log.warn("Could not undo cart decrease of {} for SKU '{}': no longer hot", line.quantity, line.sku);
+        } else if (line.appliedTo == CartLine.Target.WRITE_BEHIND) {
+            writeBehindBuffer.increase(line.sku, line.quantity, line.name, line.variant);
+        }
+    }
+
+    // One JDBC batch in SKU order; the stock >= 0 guard only rejects rows changed since the check
+    private List<Product> decreaseRows(List<CartLine> lines) {
+        List<String> skus = new ArrayList<>(lines.size());
+        List<Long> deltas = new ArrayList<>(lines.size());
+        for (CartLine line : lines) {
+            skus.add(line.sku);
+            deltas.add(-line.quantity);
+        }
 
-        // Decrease stock
-        productRepository.decreaseStockBySkuIgnoreCase(sku, requestDTO.getQuantity());
+        int[] updatedRows = productRepository.adjustStockBySkus(skus, deltas);
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                CartLine line = lines.get(i);
+                throw rejectDecrease(line.sku, line.name, line.variant, line.quantity);
+            }
+        }
+        return productRepository.findAllBySkus(skus);
+    }
 
-        return productRepository.findBySkuIgnoreCase(sku).get();
+    private RuntimeException rejectDecrease(String sku, String name, String variant, Long quantity) {
+        return productRepository.findBySkuIgnoreCase(sku)
+                .<RuntimeException>map(product -> new InvalidStockValueException(
+                        "Cannot decrease stock by %d. Only %d items available.",
+                        quantity, product.getStockQuantity()
+                ))
+                .orElseGet(() -> new ProductNotFoundException(
+                        "Product with name '%s' and variant '%s' not found", name, variant
+                ));
     }
 
+    private static final class CartLine {
+
+        private enum Target { LEDGER, WRITE_BEHIND, ROW }
+
+        private final String sku;
+        private final String name;
+        private final String variant;
+        private long quantity;
+        private Target appliedTo;
+
+        private CartLine(String sku, String name, String variant) {
+            this.sku = sku;
+            this.name = name;
+            this.variant = variant;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog.Movement;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog.Snapshot;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog.Type;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every committed create, increase, decrease and delete in the
+ * {@link StockMovementLog}. Callers only enqueue; one writer thread drains the
+ * queue and appends whatever has accumulated as a single fsynced batch (group
+ * commit), so a burst of stock changes costs one disk flush instead of one each.
+ *
+ * The writer also keeps every SKU's latest quantity and snapshots it on a
+ * schedule; startup and as-of queries rebuild from the nearest snapshot and only
+ * replay the movements after it.
+ */
+@Component
+public class StockMovementJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(StockMovementJournal.class);
+
+    private static final int MAX_BATCH = 4096;
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final int retainedSnapshots;
+    private final ProductRepository productRepository;
+    private final BlockingQueue<Movement> queue;
+
+    // Owned by the writer thread once it has started
+    private final Map<String, Long> quantities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private StockMovementLog movementLog;
+    private long snapshotSequence;
+    private Thread writer;
+
+    private volatile boolean snapshotRequested;
+    private volatile boolean running;
+
+    public StockMovementJournal(
+            @Value("${inventory.movements.enabled:true}") boolean enabled,
+            @Value("${inventory.movements.directory:data/stock-movements}") Path directory,
+            @Value("${inventory.movements.segment-size:64MB}") DataSize segmentSize,
+            @Value("${inventory.movements.queue-capacity:65536}") int queueCapacity,
+            @Value("${inventory.movements.retained-snapshots:24}") int retainedSnapshots,
+            ProductRepository productRepository) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSnapshots = retainedSnapshots;
+        this.productRepository = productRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        movementLog = new StockMovementLog(directory, segmentSize.toBytes(), retainedSnapshots);
+
+        if (movementLog.isEmpty() && movementLog.latestSnapshot(Long.MAX_VALUE).isEmpty()) {
+            // First start: products that existed before the journal become the baseline at sequence 0
+            productRepository.forEachProduct(product -> quantities.put(product.getSku(), product.getStockQuantity()));
+            movementLog.writeSnapshot(new Snapshot(0, System.currentTimeMillis(), new TreeMap<>(quantities)));
+        } else {
+            quantities.putAll(rebuild(Long.MAX_VALUE));
+        }
+        snapshotSequence = movementLog.lastSequence();
+
+        running = true;
+        writer = new Thread(this::writeLoop, "stock-movement-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records a movement once the surrounding transaction (if any) has committed;
+     * changes that roll back never reach the journal.
+     */
+    public void record(Type type, String sku, long delta, long quantity) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(type, sku, delta, quantity);
+                }
+            });
+        } else {
+            enqueue(type, sku, delta, quantity);
+        }
+    }
+
+    public void recordCreated(Product product) {
+        record(Type.CREATE, product.getSku(), product.getStockQuantity(), product.getStockQuantity());
+    }
+
+    public void recordDeleted(Product product) {
+        record(Type.DELETE, product.getSku(), -product.getStockQuantity(), 0);
+    }
+
+    // Published after commit, so the movement is enqueued directly
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Product product = event.getProduct();
+        enqueue(event.getDelta() >= 0 ? Type.INCREASE : Type.DECREASE,
+                product.getSku(), event.getDelta(), product.getStockQuantity());
+    }
+
+    /**
+     * Movements after {@code afterSequence} in {@code [from, to)}, optionally for
+     * one SKU, oldest first. Only movements already on disk are returned.
+     */
+    public List<Movement> find(String sku, Instant from, Instant to, long afterSequence, int limit) {
+        requireEnabled();
+        try {
+            return movementLog.read(afterSequence, from.toEpochMilli(), to.toEpochMilli(), sku, limit);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the stock movement journal", ex);
+        }
+    }
+
+    // Every SKU's quantity as of the given instant, rebuilt from the nearest earlier snapshot
+    public Map<String, Long> quantitiesAt(Instant at) {
+        requireEnabled();
+        try {
+            return rebuild(at.toEpochMilli());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the stock movement journal", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.movements.snapshot-interval-ms:300000}")
+    public void requestSnapshot() {
+        snapshotRequested = true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enabled || writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MS);
+        if (writer.isAlive()) {
+            log.error("Stock movement writer did not drain within {} ms; {} movements not journaled",
+                    SHUTDOWN_TIMEOUT_MS, queue.size());
+            return;
+        }
+        snapshotIfAdvanced();
+        movementLog.close();
+    }
+
+    private void enqueue(Type type, String sku, long delta, long quantity) {
+        Movement movement = new Movement(0, System.currentTimeMillis(), type, sku, delta, quantity);
+        try {
+            // Blocks only when the writer has fallen a whole queue behind the disk
+            queue.put(movement);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while journaling {} of SKU '{}'; movement not recorded", type, sku);
+        }
+    }
+
+    private void writeLoop() {
+        List<Movement> batch = new ArrayList<>();
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Movement first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, MAX_BATCH - 1);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    append(batch);
+                    batch.clear();
+                }
+                if (snapshotRequested) {
+                    snapshotRequested = false;
+                    snapshotIfAdvanced();
+                }
+            } catch (IOException ex) {
+                // The batch stays pending and is retried; callers keep enqueueing meanwhile
+                log.error("Could not append {} stock movements, will retry", batch.size(), ex);
+                sleepBeforeRetry();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Assigns sequence numbers and keeps timestamps non-decreasing in log order
+    private void append(List<Movement> batch) throws IOException {
+        List<Movement> numbered = new ArrayList<>(batch.size());
+        long sequence = movementLog.lastSequence();
+        long timestamp = movementLog.lastTimestamp();
+        for (Movement movement : batch) {
+            timestamp = Math.max(timestamp, movement.timestamp());
+            numbered.add(new Movement(++sequence, timestamp, movement.type(), movement.sku(),
+                    movement.delta(), movement.quantity()));
+        }
+        movementLog.append(numbered);
+        numbered.forEach(this::apply);
+    }
+
+    private void snapshotIfAdvanced() throws IOException {
+        if (movementLog.lastSequence() == snapshotSequence) {
+            return;
+        }
+        movementLog.writeSnapshot(new Snapshot(movementLog.lastSequence(), movementLog.lastTimestamp(),
+                new TreeMap<>(quantities)));
+        snapshotSequence = movementLog.lastSequence();
+    }
+
+    private Map<String, Long> rebuild(long atOrBefore) throws IOException {
+        Snapshot snapshot = movementLog.latestSnapshot(atOrBefore)
+                .orElse(new Snapshot(0, Long.MIN_VALUE, Map.of()));
+        Map<String, Long> rebuilt = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        rebuilt.putAll(snapshot.quantities());
+        movementLog.replay(snapshot.sequence(), movement -> {
+            if (movement.timestamp() > atOrBefore) {
+                return false;
+            }
+            apply(rebuilt, movement);
+            return true;
+        });
+        return rebuilt;
+    }
+
+    private void apply(Movement movement) {
+        apply(quantities, movement);
+    }
+
+    private static void apply(Map<String, Long> target, Movement movement) {
+        if (movement.type() == Type.DELETE) {
+            target.remove(movement.sku());
+        } else {
+            target.put(movement.sku(), movement.quantity());
+        }
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new IllegalStateException("The stock movement journal is disabled (inventory.movements.enabled)");
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_DELAY_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
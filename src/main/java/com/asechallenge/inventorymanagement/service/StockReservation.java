@@ -0,0 +1,34 @@
+package com.asechallenge.inventorymanagement.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class StockReservation {
+
+    private final UUID id;
+    private final String sku;
+    private final String name;
+    private final String variant;
+    private final long quantity;
+    private final Instant expiresAt;
+
+    public StockReservation(UUID id, String sku, String name, String variant, long quantity, Instant expiresAt) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.variant = variant;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getId() { return id; }
+    public String getSku() { return sku; }
+    public String getName() { return name; }
+    public String getVariant() { return variant; }
+    public long getQuantity() { return quantity; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,226 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ReservationNotFoundException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory index of open stock holds. Every SKU with at least one hold keeps the
+ * on-hand quantity last seen plus the total held, so availability checks and new
+ * holds are answered without touching the database. The on-hand quantity follows
+ * committed stock changes; units that direct decreases have taken in a transaction
+ * that has not completed yet are counted separately, until it commits (and the
+ * quantity follows its stock change) or rolls back. The entry is dropped once
+ * nothing is held or taken.
+ */
+@Component
+public class StockReservationIndex {
+
+    private final Map<UUID, StockReservation> reservations = new ConcurrentHashMap<>();
+    private final Map<String, HeldStock> heldBySku = new ConcurrentHashMap<>();
+
+    // Open holds, earliest expiry first
+    private final NavigableSet<StockReservation> expiries = new ConcurrentSkipListSet<>(
+            Comparator.comparing(StockReservation::getExpiresAt).thenComparing(StockReservation::getId));
+
+    /**
+     * Holds the quantity if it is not already held by others. {@code onHand} is only
+     * called when the SKU has no open holds yet, inside the map's compute, so a settle
+     * that drops the entry concurrently cannot leave the new entry without stock;
+     * otherwise the tracked quantity wins.
+     */
+    public StockReservation hold(String sku, String name, String variant, long quantity,
+                                 Instant expiresAt, LongSupplier onHand) {
+        heldBySku.compute(key(sku), (k, stock) -> {
+            HeldStock held = (stock == null) ? new HeldStock(onHand.getAsLong()) : stock;
+            long available = held.available();
+            if (available < quantity) {
+                throw new InvalidStockValueException(
+                        "Cannot reserve %d. Only %d items available.", quantity, available
+                );
+            }
+            held.held += quantity;
+            return held;
+        });
+
+        StockReservation reservation = new StockReservation(UUID.randomUUID(), sku, name, variant, quantity, expiresAt);
+        reservations.put(reservation.getId(), reservation);
+        expiries.add(reservation);
+        return reservation;
+    }
+
+    public boolean isTracked(String sku) {
+        return heldBySku.containsKey(key(sku));
+    }
+
+    // On-hand minus held, or empty when the SKU has no open holds
+    public OptionalLong available(String sku) {
+        HeldStock stock = heldBySku.get(key(sku));
+        return (stock == null) ? OptionalLong.empty() : OptionalLong.of(stock.available());
+    }
+
+    public long held(String sku) {
+        HeldStock stock = heldBySku.get(key(sku));
+        return (stock == null) ? 0 : stock.held;
+    }
+
+    /**
+     * Takes units for a direct decrease in the current transaction, or rejects it when
+     * it would eat into held units. Check and take are one step, so concurrent decreases
+     * cannot both pass against the same unheld units; the units are given back when the
+     * transaction completes, by which time a committed decrease has moved the on-hand
+     * quantity. Outside a transaction this is only a check.
+     */
+    public void takeUnreserved(String sku, long quantity) {
+        if (!tryTakeUnreserved(sku, quantity)) {
+            HeldStock stock = heldBySku.get(key(sku));
+            long available = (stock == null) ? 0 : stock.available();
+            throw new InvalidStockValueException(
+                    "Cannot decrease stock by %d. Only %d items available, %d are reserved.",
+                    quantity, Math.max(available, 0), (stock == null) ? 0 : stock.held
+            );
+        }
+    }
+
+    // As takeUnreserved, but reports a rejection instead of throwing; SKUs without holds always pass
+    public boolean tryTakeUnreserved(String sku, long quantity) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        boolean[] taken = new boolean[1];
+        boolean[] rejected = new boolean[1];
+        heldBySku.computeIfPresent(key(sku), (k, stock) -> {
+            if (stock.available() < quantity) {
+                rejected[0] = true;
+            } else if (inTransaction) {
+                stock.taken += quantity;
+                taken[0] = true;
+            }
+            return stock;
+        });
+        if (taken[0]) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    heldBySku.computeIfPresent(key(sku), (k, stock) -> {
+                        stock.taken -= quantity;
+                        return stock.isEmpty() ? null : stock;
+                    });
+                }
+            });
+        }
+        return !rejected[0];
+    }
+
+    /**
+     * Takes the reservation out of the index so it is committed at most once. Its
+     * units stay held until {@link #settle} so no other hold can take them meanwhile.
+     */
+    public StockReservation claim(UUID id, Instant now) {
+        StockReservation reservation = remove(id);
+        if (reservation.isExpired(now)) {
+            settle(reservation);
+            throw new ReservationNotFoundException("Reservation '%s' has expired", id);
+        }
+        return reservation;
+    }
+
+    // Gives back the units of a claimed reservation once its stock change is done (or failed)
+    public void settle(StockReservation reservation) {
+        heldBySku.computeIfPresent(key(reservation.getSku()), (k, stock) -> {
+            stock.held -= reservation.getQuantity();
+            return stock.isEmpty() ? null : stock;
+        });
+    }
+
+    public StockReservation release(UUID id) {
+        StockReservation reservation = remove(id);
+        settle(reservation);
+        return reservation;
+    }
+
+    /**
+     * Releases every hold whose expiry has passed and returns how many were released.
+     */
+    public int releaseExpired(Instant now) {
+        int released = 0;
+        for (StockReservation next : expiries) {
+            if (!next.isExpired(now)) {
+                break;
+            }
+            // Commit and release remove the hold too; whoever removes it first settles it
+            if (expiries.remove(next) && reservations.remove(next.getId(), next)) {
+                settle(next);
+                released++;
+            }
+        }
+        return released;
+    }
+
+    public List<String> trackedSkus() {
+        return new ArrayList<>(heldBySku.keySet());
+    }
+
+    public void updateOnHand(String sku, long onHand) {
+        heldBySku.computeIfPresent(key(sku), (k, stock) -> {
+            stock.onHand = onHand;
+            return stock;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        updateOnHand(event.getProduct().getSku(), event.getProduct().getStockQuantity());
+    }
+
+    private StockReservation remove(UUID id) {
+        StockReservation reservation = reservations.remove(id);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(
+                    "Reservation '%s' does not exist or has expired", id
+            );
+        }
+        expiries.remove(reservation);
+        return reservation;
+    }
+
+    private static String key(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+
+    // Mutated only inside ConcurrentHashMap.compute for its key
+    private static final class HeldStock {
+        private volatile long onHand;
+        private volatile long held;
+        // Taken by direct decreases whose transaction has not completed yet
+        private volatile long taken;
+
+        private HeldStock(long onHand) {
+            this.onHand = onHand;
+        }
+
+        private long available() {
+            return onHand - held - taken;
+        }
+
+        private boolean isEmpty() {
+            return held <= 0 && taken <= 0;
+        }
+    }
+}
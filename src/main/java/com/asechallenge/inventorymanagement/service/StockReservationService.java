@@ -0,0 +1,149 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.asechallenge.inventorymanagement.dto.StockAvailabilityDTO;
+import com.asechallenge.inventorymanagement.dto.StockReservationRequestDTO;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
+import com.asechallenge.inventorymanagement.exception.ReservationNotFoundException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.util.SkuGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hold / commit / release of stock for checkout. A hold only updates the in-memory
+ * {@link StockReservationIndex}; the products row is written once, when the hold
+ * is committed. Holds that are neither committed nor released expire after their TTL.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final HotStockLedger hotStockLedger;
+    private final StockWriteBehindBuffer writeBehindBuffer;
+    private final StockReservationIndex reservationIndex;
+    private final ProductUpdateService updateService;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+
+    public StockReservationService(ProductRepository productRepository,
+                                   ProductCache productCache,
+                                   HotStockLedger hotStockLedger,
+                                   StockWriteBehindBuffer writeBehindBuffer,
+                                   StockReservationIndex reservationIndex,
+                                   ProductUpdateService updateService,
+                                   @Value("${inventory.reservations.default-ttl:15m}") Duration defaultTtl,
+                                   @Value("${inventory.reservations.max-ttl:2h}") Duration maxTtl) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.hotStockLedger = hotStockLedger;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.reservationIndex = reservationIndex;
+        this.updateService = updateService;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+    }
+
+    public StockReservation hold(String name, String variant, StockReservationRequestDTO requestDTO) {
+        if (requestDTO.getQuantity() == null || requestDTO.getQuantity() <= 0) {
+            throw new InvalidStockValueException("Quantity to reserve must be greater than 0 and an Integer");
+        }
+        Duration ttl = (requestDTO.getTtlSeconds() == null)
+                ? defaultTtl
+                : Duration.ofSeconds(requestDTO.getTtlSeconds());
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException(
+                    String.format("Reservation TTL must be between 1 and %d seconds", maxTtl.toSeconds()));
+        }
+
+        String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
+        // Only the first hold on a SKU reads its stock (usually from the product cache); later holds use the tracked quantity
+        return reservationIndex.hold(sku, name, variant, requestDTO.getQuantity(), Instant.now().plus(ttl),
+                () -> loadProduct(sku, name, variant).getStockQuantity());
+    }
+
+    /**
+     * Applies the held decrease to the product. If the stock can no longer cover it
+     * (changed outside reservations since the hold), the hold is dropped and the
+     * decrease is rejected like a direct one.
+     */
+    public Product commit(String reservationId) {
+        StockReservation reservation = reservationIndex.claim(parseId(reservationId), Instant.now());
+        try {
+            return updateService.decreaseReservedStock(reservation);
+        } finally {
+            reservationIndex.settle(reservation);
+        }
+    }
+
+    public void release(String reservationId) {
+        reservationIndex.release(parseId(reservationId));
+    }
+
+    public StockAvailabilityDTO getAvailability(String name, String variant) {
+        String sku = SkuGenerator.generateSKU(name.trim(), variant.trim());
+        if (reservationIndex.isTracked(sku)) {
+            long held = reservationIndex.held(sku);
+            long available = reservationIndex.available(sku).orElse(0);
+            return new StockAvailabilityDTO(sku, available + held, held, Math.max(available, 0));
+        }
+        Product product = loadProduct(sku, name, variant);
+        return new StockAvailabilityDTO(product.getSku(), product.getStockQuantity(), 0, product.getStockQuantity());
+    }
+
+    /**
+     * Releases expired holds, then re-reads the on-hand quantity of SKUs that still
+     * have holds so changes made outside the stock endpoints (batch adjustments) are
+     * picked up. Hot SKUs are skipped: their row lags the ledger, whose changes arrive
+     * as stock events. Deltas still in the write-behind buffer are added to the row.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:1000}")
+    public void sweep() {
+        int released = reservationIndex.releaseExpired(Instant.now());
+        if (released > 0) {
+            log.debug("Released {} expired stock reservations", released);
+        }
+
+        List<String> skus = reservationIndex.trackedSkus();
+        skus.removeIf(hotStockLedger::isHot);
+        if (skus.isEmpty()) {
+            return;
+        }
+        Map<String, Long> quantities = productRepository.findStockQuantitiesBySkus(skus);
+        quantities.forEach((sku, quantity) ->
+                reservationIndex.updateOnHand(sku, writeBehindBuffer.projectStock(sku, quantity)));
+    }
+
+    private Product loadProduct(String sku, String name, String variant) {
+        return productCache.get(sku, productRepository::findBySkuIgnoreCase)
+                .map(writeBehindBuffer::project)
+                .map(hotStockLedger::project)
+                .orElseThrow(() -> new ProductNotFoundException(
+                        "Product with name '%s' and variant '%s' not found", name, variant
+                ));
+    }
+
+    private UUID parseId(String reservationId) {
+        try {
+            return UUID.fromString(reservationId);
+        } catch (IllegalArgumentException ex) {
+            throw new ReservationNotFoundException(
+                    "Reservation '%s' does not exist or has expired", reservationId
+            );
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.asechallenge.inventorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+import com.asechallenge.inventorymanagement.entity.StockJournalCheckpoint;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaJournal;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+import com.asechallenge.inventorymanagement.repository.StockJournalCheckpointRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in write-behind mode for stock changes. Deltas are journaled locally,
+ * merged per SKU in memory and written to the products table as one batch when
+ * the flush interval elapses or too many deltas are pending.
+ *
+ * Acknowledged decreases are checked against the committed row plus the SKU's
+ * pending deltas, so the buffer must be the only writer of that row: deleting the
+ * product discards its entry and promoting it to the hot ledger hands the row
+ * over (see {@link #handOff}). A change made to the row by another process still
+ * ends in the dead-letter table when it is flushed.
+ *
+ * Changes to one SKU are serialized by that SKU's lock; changes to different SKUs
+ * only share the journal write. The journal fsync happens after every lock is
+ * released, and callers that arrive together share one (see {@link StockDeltaJournal#sync}).
+ *
+ * Flushes never run on a caller's thread: they would join the caller's transaction,
+ * so a later rollback of that transaction would undo deltas the buffer had already
+ * forgotten. The batch is written without any SKU lock, so callers keep buffering
+ * (and holding the writer connection) while a flush waits for it.
+ */
+@Component
+public class StockWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteBehindBuffer.class);
+
+    static final String JOURNAL_NAME = "stock-deltas";
+
+    private final boolean enabled;
+    private final int maxPendingDeltas;
+    private final Path journalPath;
+    private final ProductRepository productRepository;
+    private final StockJournalCheckpointRepository checkpointRepository;
+    private final StockDeltaDeadLetterRepository deadLetterRepository;
+    private final InventoryMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+
+    // Shared by appends; a flush takes it alone to snapshot, so every sequence it
+    // checkpoints is already in a pending delta
+    private final ReentrantReadWriteLock appendLock = new ReentrantReadWriteLock();
+
+    // One flush at a time; held while the batch is written, without any SKU lock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private ExecutorService flusher;
+
+    // Buffered SKUs by lower-cased SKU; each entry is changed under its own lock
+    private final Map<String, PendingStock> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger pendingDeltas = new AtomicInteger();
+    private volatile StockDeltaJournal journal;
+
+    // Projected stock of every buffered SKU by lower-cased SKU, written under the SKU's lock and read without it
+    private final Map<String, Long> projectedStock = new ConcurrentHashMap<>();
+
+    public StockWriteBehindBuffer(
+            @Value("${inventory.stock.write-behind.enabled:false}") boolean enabled,
+            @Value("${inventory.stock.write-behind.max-pending-deltas:1000}") int maxPendingDeltas,
+            @Value("${inventory.stock.write-behind.journal-path:data/stock-deltas.journal}") Path journalPath,
+            ProductRepository productRepository,
+            StockJournalCheckpointRepository checkpointRepository,
+            StockDeltaDeadLetterRepository deadLetterRepository,
+            InventoryMetrics metrics,
+            PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.maxPendingDeltas = maxPendingDeltas;
+        this.journalPath = journalPath;
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The product with its buffered stock when the SKU has deltas not yet flushed,
+     * unchanged otherwise. Read paths serving committed rows (the cache after a reload,
+     * the read-mostly store) apply it so they do not lag acknowledged changes.
+     */
+    public Product project(Product product) {
+        long quantity = projectStock(product.getSku(), product.getStockQuantity());
+        return (quantity == product.getStockQuantity()) ? product
+                : new Product(product.getName(), product.getVariant(), product.getDescription(),
+                        quantity, product.getLowStockThreshold(), product.getSku(), product.getVersion());
+    }
+
+    // The buffered stock of the SKU when it has deltas not yet flushed, otherwise the committed quantity given
+    public long projectStock(String sku, long committedQuantity) {
+        if (!enabled) {
+            return committedQuantity;
+        }
+        Long quantity = projectedStock.get(key(sku));
+        return (quantity == null) ? committedQuantity : quantity;
+    }
+
+    /**
+     * Replays deltas that were acknowledged but not flushed before the last shutdown.
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        flushLock.lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+
+            journal = new StockDeltaJournal(journalPath);
+            flusher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-write-behind-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long checkpoint = checkpointRepository.findById(JOURNAL_NAME)
+                    .map(StockJournalCheckpoint::getLastSequence)
+                    .orElse(0L);
+
+            Map<String, Long> replayed = new LinkedHashMap<>();
+            long lastSequence = checkpoint;
+            for (StockDeltaJournal.Entry entry : journal.readAll()) {
+                lastSequence = Math.max(lastSequence, entry.sequence());
+                if (entry.sequence() > checkpoint) {
+                    replayed.merge(entry.sku(), entry.delta(), Long::sum);
+                }
+            }
+            sequence.set(lastSequence);
+
+            if (!replayed.isEmpty()) {
+                log.info("Replaying {} journaled stock deltas up to sequence {}", replayed.size(), lastSequence);
+                writeDeltas(replayed, lastSequence);
+            }
+            journal.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public Product increase(String sku, long quantity, String name, String variant) {
+        return change(sku, quantity, name, variant);
+    }
+
+    public Product decrease(String sku, long quantity, String name, String variant) {
+        return change(sku, -quantity, name, variant);
+    }
+
+    /**
+     * Journals and buffers the delta under the SKU's lock, then waits outside every
+     * lock until the journal record is on disk before answering.
+     */
+    private Product change(String sku, long delta, String name, String variant) {
+        while (true) {
+            PendingStock stock = pending.computeIfAbsent(key(sku), PendingStock::new);
+            long record;
+            Product updated;
+            stock.lock.lock();
+            try {
+                if (stock.dropped) {
+                    // A flush settled and dropped it meanwhile; the next entry reloads the row
+                    continue;
+                }
+                if (stock.handedOff) {
+                    // Only reached by a change that checked the hot ledger just before the SKU was promoted
+                    throw new InvalidStockValueException(
+                            "Stock of SKU '%s' has just moved to the hot stock ledger. Please retry the change.", sku
+                    );
+                }
+                load(stock, sku, name, variant);
+                if (delta < 0 && stock.projectedQuantity() < -delta) {
+                    throw new InvalidStockValueException(
+                            "Cannot decrease stock by %d. Only %d items available.",
+                            -delta, stock.projectedQuantity()
+                    );
+                }
+                record = append(stock, delta);
+                updated = stock.toProduct();
+            } finally {
+                stock.lock.unlock();
+            }
+
+            try {
+                journal.sync(record);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not journal stock change", ex);
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * Hands the SKU's row to another owner, the hot stock ledger. Its pending deltas
+     * are written first and no new ones are taken, so {@code takeOver} reads a row
+     * that holds every acknowledged change. The SKU stays closed to the buffer until
+     * {@link #reopen}. Must not be called inside a transaction, like {@link #flush}.
+     */
+    public Product handOff(String sku, Supplier<Product> takeOver) {
+        if (!enabled) {
+            return takeOver.get();
+        }
+        PendingStock stock;
+        while (true) {
+            stock = pending.computeIfAbsent(key(sku), PendingStock::new);
+            stock.lock.lock();
+            try {
+                if (!stock.dropped) {
+                    stock.handedOff = true;
+                    break;
+                }
+            } finally {
+                stock.lock.unlock();
+            }
+        }
+
+        try {
+            flushLock.lock();
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+            return takeOver.get();
+        } catch (RuntimeException ex) {
+            reopen(sku);
+            throw ex;
+        }
+    }
+
+    // Lets the buffer take changes of a SKU handed off before, once its new owner has written the row back
+    public void reopen(String sku) {
+        PendingStock stock = pending.get(key(sku));
+        if (stock == null) {
+            return;
+        }
+        stock.lock.lock();
+        try {
+            if (stock.handedOff && !stock.dropped) {
+                drop(stock);
+            }
+        } finally {
+            stock.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the SKU's entry without writing its pending deltas, for products that
+     * are being deleted. A later product with the same SKU starts from its own row.
+     */
+    public void discard(String sku) {
+        PendingStock stock = pending.get(key(sku));
+        if (stock == null) {
+            return;
+        }
+        stock.lock.lock();
+        try {
+            if (!stock.dropped) {
+                drop(stock);
+            }
+        } finally {
+            stock.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes every pending delta in its own transaction. Must not be called inside a
+     * transaction: the batch would join it (see the class comment).
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPending();
+        } catch (RuntimeException ex) {
+            // Pending deltas and the journal stay intact; the next flush retries them
+            log.warn("Write-behind stock flush failed, will retry", ex);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Called under "flushLock"; a failed write leaves the pending deltas and the journal as they were
+    private void flushPending() {
+        flushRequested.set(false);
+
+        Map<PendingStock, Long> flushed = new LinkedHashMap<>();
+        long lastSequence;
+        appendLock.writeLock().lock();
+        try {
+            // No append is in progress, so the deltas cover exactly the sequences up to lastSequence
+            pending.values().forEach(stock -> {
+                if (stock.pendingDelta != 0) {
+                    flushed.put(stock, stock.pendingDelta);
+                }
+            });
+            lastSequence = sequence.get();
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+        if (flushed.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        flushed.forEach((stock, delta) -> deltas.put(stock.product.getSku(), delta));
+
+        Set<String> rejected = writeDeltas(deltas, lastSequence);
+
+        // Deltas buffered while the batch was written stay pending on top of the new committed quantity
+        flushed.forEach((stock, delta) -> {
+            stock.lock.lock();
+            try {
+                stock.flushed(delta, !rejected.contains(stock.product.getSku()));
+                if (!stock.dropped) {
+                    projectedStock.put(stock.key, stock.projectedQuantity());
+                }
+            } finally {
+                stock.lock.unlock();
+            }
+        });
+        // Drop settled snapshots so the next change reloads the committed row
+        pending.values().forEach(this::dropIfSettled);
+        pendingDeltas.set((int) (sequence.get() - lastSequence));
+        try {
+            journal.retainAfter(lastSequence);
+        } catch (IOException ex) {
+            // Harmless: the checkpoint makes replay skip records that were already flushed
+            log.warn("Could not truncate stock delta journal", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        journal.close();
+    }
+
+    // Reads the committed row into a new entry; called under the entry's lock
+    private void load(PendingStock stock, String sku, String name, String variant) {
+        if (stock.product != null) {
+            return;
+        }
+        Optional<Product> product = productRepository.findBySkuIgnoreCase(sku);
+        if (product.isEmpty()) {
+            drop(stock);
+            throw new ProductNotFoundException(
+                    "Product with name '%s' and variant '%s' not found", name, variant
+            );
+        }
+        stock.product = product.get();
+        stock.committedQuantity = product.get().getStockQuantity();
+    }
+
+    private void dropIfSettled(PendingStock stock) {
+        stock.lock.lock();
+        try {
+            if (!stock.dropped && !stock.handedOff && stock.pendingDelta == 0) {
+                drop(stock);
+            }
+        } finally {
+            stock.lock.unlock();
+        }
+    }
+
+    // Called under the entry's lock
+    private void drop(PendingStock stock) {
+        stock.dropped = true;
+        pending.remove(stock.key, stock);
+        projectedStock.remove(stock.key);
+    }
+
+    private String key(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+
+    // Writes the journal record and buffers the delta under the entry's lock; returns the record to sync
+    private long append(PendingStock stock, long delta) {
+        long record;
+        appendLock.readLock().lock();
+        try {
+            record = journal.append(sequence.incrementAndGet(), stock.product.getSku(), delta);
+            stock.pendingDelta += delta;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not journal stock change", ex);
+        } finally {
+            appendLock.readLock().unlock();
+        }
+        projectedStock.put(stock.key, stock.projectedQuantity());
+
+        if (pendingDeltas.incrementAndGet() >= maxPendingDeltas && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+        return record;
+    }
+
+    /**
+     * Writes the deltas and advances the checkpoint in one transaction. Deltas the
+     * guarded update refuses are dead-lettered in that same transaction, so an
+     * acknowledged delta is always either applied or on record for reconciliation.
+     *
+     * @return SKUs whose delta was dead-lettered
+     */
+    private Set<String> writeDeltas(Map<String, Long> deltas, long lastSequence) {
+        List<String> skus = new ArrayList<>(deltas.keySet());
+        List<Long> values = new ArrayList<>(deltas.values());
+
+        Set<String> rejected = transactionTemplate.execute(status -> {
+            Set<String> refused = new HashSet<>();
+            if (!skus.isEmpty()) {
+                int[] updatedRows = productRepository.adjustStockBySkus(skus, values);
+                Instant now = Instant.now();
+                for (int i = 0; i < updatedRows.length; i++) {
+                    if (updatedRows[i] == 0) {
+                        // Product deleted, or its stock changed outside this buffer
+                        deadLetterRepository.save(new StockDeltaDeadLetter(
+                                StockDeltaDeadLetter.Source.WRITE_BEHIND, skus.get(i), values.get(i), lastSequence, now));
+                        refused.add(skus.get(i));
+                    }
+                }
+            }
+            checkpointRepository.save(new StockJournalCheckpoint(JOURNAL_NAME, lastSequence));
+            return refused;
+        });
+
+        if (!rejected.isEmpty()) {
+            log.error("Dead-lettered write-behind deltas for SKUs {}; reconcile their stock", rejected);
+            metrics.deadLetteredDeltas(StockDeltaDeadLetter.Source.WRITE_BEHIND, rejected.size());
+        }
+        return rejected;
+    }
+
+    // Fields are changed under "lock"; pendingDelta is also read by a flush's snapshot under the append write lock
+    private static final class PendingStock {
+        // A lock rather than a monitor: it is held across the database read that loads
+        // the row, which would pin the carrier thread when callers run on virtual threads
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String key;
+        private Product product;
+        private long committedQuantity;
+        private long pendingDelta;
+        // Removed from the buffer; a caller that still holds it must take a new entry
+        private boolean dropped;
+        // The row belongs to the hot stock ledger until the SKU is reopened
+        private boolean handedOff;
+
+        private PendingStock(String key) {
+            this.key = key;
+        }
+
+        private void flushed(long delta, boolean applied) {
+            if (applied) {
+                committedQuantity += delta;
+            }
+            pendingDelta -= delta;
+        }
+
+        private long projectedQuantity() {
+            return committedQuantity + pendingDelta;
+        }
+
+        private Product toProduct() {
+            return new Product(product.getName(), product.getVariant(), product.getDescription(),
+                    projectedQuantity(), product.getLowStockThreshold(), product.getSku(), product.getVersion());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.asechallenge.inventorymanagement.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields may
+ * contain commas, line breaks and doubled quotes. Reads one record at a time.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private int lineNumber = 1;
+    private int recordLine;
+    private boolean finished;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at end of input.
+     */
+    public List<String> next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int c = reader.read();
+        if (c == -1) {
+            finished = true;
+            return null;
+        }
+
+        recordLine = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException(
+                            String.format("Unterminated quoted field starting on line %d", recordLine));
+                }
+                if (c == '"') {
+                    int following = reader.read();
+                    if (following != '"') {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    lineNumber++;
+                } else {
+                    finished = true;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    // Line on which the record last returned by next() started
+    public int getRecordLine() {
+        return recordLine;
+    }
+}
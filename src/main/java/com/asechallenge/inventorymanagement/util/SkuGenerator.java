@@ -1,24 +1,149 @@
 package com.asechallenge.inventorymanagement.util;
 
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a SKU from name and variant: the name without whitespace in lower case,
+ * followed by the variant without whitespace with its first letter upper-cased and
+ * the rest lower-cased ("Dell XPS", "13 inch" -> "dellxps13inch").
+ *
+ * ASCII input takes a single pass without regex or intermediate strings. Anything
+ * else goes through String's case mapping, which can change length ('ß' -> "SS").
+ */
 public class SkuGenerator {
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Direct-mapped: a colliding key replaces the slot. Entries are immutable, so racy reads are safe.
+    private static final int CACHE_SIZE = 1024;
+    private static final CachedSku[] CACHE = new CachedSku[CACHE_SIZE];
+
     private SkuGenerator() {
     }
 
-   public static String generateSKU(String name, String variant) {
-        String base = name.replaceAll("\\s+", "").toLowerCase().trim();
+    public static String generateSKU(String name, String variant) {
+        int slot = (31 * name.hashCode() + (variant == null ? 0 : variant.hashCode())) & (CACHE_SIZE - 1);
+        CachedSku cached = CACHE[slot];
+        if (cached != null && cached.matches(name, variant)) {
+            return cached.sku;
+        }
+
+        int capacity = name.length() + (variant == null ? 0 : variant.length());
+        String sku = appendSku(new StringBuilder(capacity), name, variant).toString();
+        CACHE[slot] = new CachedSku(name, variant, sku);
+        return sku;
+    }
+
+    /**
+     * Appends the SKU for name and variant to the caller's buffer, so callers that
+     * reuse a buffer generate SKUs without allocating.
+     */
+    public static StringBuilder appendSku(StringBuilder out, CharSequence name, CharSequence variant) {
+        if (!isAscii(name) || (variant != null && !isAscii(variant))) {
+            return out.append(generateUnicode(name.toString(), variant == null ? null : variant.toString()));
+        }
+
+        appendStripped(out, name, false);
+        if (variant == null || isBlankAscii(variant)) {
+            return out;
+        }
+        if (!hasVisibleAscii(variant)) {
+            // Non-blank but only control characters: keep the general path's behaviour for this input
+            return out.append(generateUnicode(name.toString(), variant.toString()));
+        }
+        appendStripped(out, variant, true);
+        return out;
+    }
+
+    // Drops whitespace, trims control characters at both ends and lower-cases; optionally capitalizes
+    private static void appendStripped(StringBuilder out, CharSequence value, boolean capitalize) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        boolean first = capitalize;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (isRegexWhitespace(c)) {
+                continue;
+            }
+            if (first) {
+                out.append(c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c);
+                first = false;
+            } else {
+                out.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            }
+        }
+    }
+
+    private static String generateUnicode(String name, String variant) {
+        String base = WHITESPACE.matcher(name).replaceAll("").toLowerCase(Locale.ROOT).trim();
 
         if (variant == null || variant.isBlank()) {
             return base;
         }
 
-        // Remove spaces in variant
-        String cleanedVariant = variant.replaceAll("\\s+", "").trim();
+        String cleanedVariant = WHITESPACE.matcher(variant).replaceAll("").trim();
+
+        return base + cleanedVariant.substring(0, 1).toUpperCase(Locale.ROOT)
+                + cleanedVariant.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The characters matched by \s without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // String.isBlank() restricted to ASCII: Character.isWhitespace also covers U+001C..U+001F
+    private static boolean isBlankAscii(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isRegexWhitespace(c) && (c < 0x1C || c > 0x1F)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasVisibleAscii(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        // Uppercase first letter, lowercase rest
-        String camelVariant = cleanedVariant.substring(0, 1).toUpperCase() +
-                            cleanedVariant.substring(1).toLowerCase();
+    private static final class CachedSku {
 
-        return base + camelVariant;
+        private final String name;
+        private final String variant;
+        private final String sku;
+
+        private CachedSku(String name, String variant, String sku) {
+            this.name = name;
+            this.variant = variant;
+            this.sku = sku;
+        }
+
+        private boolean matches(String otherName, String otherVariant) {
+            return name.equals(otherName)
+                    && (variant == null ? otherVariant == null : variant.equals(otherVariant));
+        }
     }
-}
\ No newline at end of file
+}
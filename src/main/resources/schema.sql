@@ -0,0 +1,161 @@
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization).
+-- Statements end with $$ (spring.sql.init.separator) because trigger bodies contain ';'.
+-- Indexes on expressions are avoided: Hibernate's schema update cannot read them back.
+
+-- Version of each derived structure whose contents are rebuilt from products: the rebuild
+-- below only runs when the recorded version is missing (a new or older database) or lower
+-- than the one in this file. Bump the number in a rebuild's guard and its marker together
+-- when the structure or its triggers change.
+CREATE TABLE IF NOT EXISTS schema_versions (
+    component TEXT PRIMARY KEY,
+    version   INTEGER NOT NULL
+)$$
+
+-- Serves every case-insensitive SKU lookup (sku = ? COLLATE NOCASE)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_products_sku_nocase ON products (sku COLLATE NOCASE)$$
+
+-- Materialized low-stock set: one row per product below its threshold, keyed by shortfall
+-- (threshold - stock) so the most urgent products come first. Kept current by the triggers below.
+CREATE TABLE IF NOT EXISTS low_stock_products (
+    product_id INTEGER PRIMARY KEY,
+    shortfall  INTEGER NOT NULL
+)$$
+
+CREATE INDEX IF NOT EXISTS idx_low_stock_products_shortfall ON low_stock_products (shortfall DESC, product_id)$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_low_stock_insert
+AFTER INSERT ON products
+WHEN NEW.stock_quantity < NEW.low_stock_threshold
+BEGIN
+    INSERT OR REPLACE INTO low_stock_products (product_id, shortfall)
+    VALUES (NEW.id, NEW.low_stock_threshold - NEW.stock_quantity);
+END$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_low_stock_update
+AFTER UPDATE OF stock_quantity ON products
+BEGIN
+    DELETE FROM low_stock_products
+    WHERE product_id = OLD.id AND NEW.stock_quantity >= NEW.low_stock_threshold;
+
+    INSERT OR REPLACE INTO low_stock_products (product_id, shortfall)
+    SELECT NEW.id, NEW.low_stock_threshold - NEW.stock_quantity
+    WHERE NEW.stock_quantity < NEW.low_stock_threshold;
+END$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_low_stock_delete
+AFTER DELETE ON products
+BEGIN
+    DELETE FROM low_stock_products WHERE product_id = OLD.id;
+END$$
+
+-- Rebuilt when first created, so rows written before the triggers existed are included
+DELETE FROM low_stock_products
+WHERE NOT EXISTS (SELECT 1 FROM schema_versions WHERE component = 'low_stock_products' AND version >= 1)$$
+
+INSERT INTO low_stock_products (product_id, shortfall)
+SELECT id, low_stock_threshold - stock_quantity
+FROM products
+WHERE stock_quantity < low_stock_threshold
+  AND NOT EXISTS (SELECT 1 FROM schema_versions WHERE component = 'low_stock_products' AND version >= 1)$$
+
+INSERT INTO schema_versions (component, version) VALUES ('low_stock_products', 1)
+ON CONFLICT (component) DO UPDATE SET version = excluded.version WHERE version < excluded.version$$
+
+-- Catalog change counter behind the list ETags: every insert, delete and stock or description
+-- update moves it by one, and each row records the value of its last write in products.version.
+-- Seeded with the current time in microseconds, so a recreated database never repeats the
+-- versions (and therefore the ETags) handed out by an earlier one.
+CREATE TABLE IF NOT EXISTS product_catalog_version (
+    id      INTEGER PRIMARY KEY CHECK (id = 0),
+    version INTEGER NOT NULL
+)$$
+
+INSERT OR IGNORE INTO product_catalog_version (id, version)
+VALUES (0, CAST((julianday('now') - 2440587.5) * 86400000000 AS INTEGER))$$
+
+-- Rows written before products.version existed
+UPDATE products SET version = (SELECT version FROM product_catalog_version WHERE id = 0)
+WHERE version = 0$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_version_insert
+AFTER INSERT ON products
+BEGIN
+    UPDATE product_catalog_version SET version = version + 1 WHERE id = 0;
+
+    UPDATE products SET version = (SELECT version FROM product_catalog_version WHERE id = 0)
+    WHERE id = NEW.id;
+END$$
+
+-- Updates stamp the row themselves (version = catalog version + 1, see ProductRepositoryCustomImpl)
+-- because RETURNING does not see changes made by AFTER triggers
+CREATE TRIGGER IF NOT EXISTS trg_products_version_update
+AFTER UPDATE OF stock_quantity, description ON products
+BEGIN
+    UPDATE product_catalog_version SET version = version + 1 WHERE id = 0;
+END$$
+
+-- Rows changed since a catalog version (ProductReadStore, CatalogWarmup): version > ? is an index range
+CREATE INDEX IF NOT EXISTS idx_products_version ON products (version)$$
+
+-- Deleted SKUs by the catalog version of their delete, so readers that follow the catalog can
+-- drop them too. Only the last 1,000,000 catalog versions are kept; a reader that falls further
+-- behind reloads the whole catalog instead.
+CREATE TABLE IF NOT EXISTS product_deletions (
+    version INTEGER PRIMARY KEY,
+    sku     TEXT NOT NULL
+)$$
+
+-- Replaced by trg_products_deletions, which also logs the deleted SKU
+DROP TRIGGER IF EXISTS trg_products_version_delete$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_deletions
+AFTER DELETE ON products
+BEGIN
+    UPDATE product_catalog_version SET version = version + 1 WHERE id = 0;
+
+    INSERT INTO product_deletions (version, sku)
+    SELECT version, OLD.sku FROM product_catalog_version WHERE id = 0;
+
+    DELETE FROM product_deletions
+    WHERE version <= (SELECT version FROM product_catalog_version WHERE id = 0) - 1000000;
+END$$
+
+-- Full-text search over name, variant and description. The trigram tokenizer gives
+-- case-insensitive substring, prefix and token matches for terms of 3+ characters.
+-- External content: the index stores no copy of the text, it reads rows from products.
+CREATE VIRTUAL TABLE IF NOT EXISTS product_search USING fts5(
+    name, variant, description,
+    content = 'products', content_rowid = 'id', tokenize = 'trigram'
+)$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_search_insert
+AFTER INSERT ON products
+BEGIN
+    INSERT INTO product_search (rowid, name, variant, description)
+    VALUES (NEW.id, NEW.name, NEW.variant, NEW.description);
+END$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_search_update
+AFTER UPDATE OF description ON products
+BEGIN
+    INSERT INTO product_search (product_search, rowid, name, variant, description)
+    VALUES ('delete', OLD.id, OLD.name, OLD.variant, OLD.description);
+
+    INSERT INTO product_search (rowid, name, variant, description)
+    VALUES (NEW.id, NEW.name, NEW.variant, NEW.description);
+END$$
+
+CREATE TRIGGER IF NOT EXISTS trg_products_search_delete
+AFTER DELETE ON products
+BEGIN
+    INSERT INTO product_search (product_search, rowid, name, variant, description)
+    VALUES ('delete', OLD.id, OLD.name, OLD.variant, OLD.description);
+END$$
+
+-- Indexes rows written before the table existed; only when first created
+INSERT INTO product_search (product_search)
+SELECT 'rebuild'
+WHERE NOT EXISTS (SELECT 1 FROM schema_versions WHERE component = 'product_search' AND version >= 1)$$
+
+INSERT INTO schema_versions (component, version) VALUES ('product_search', 1)
+ON CONFLICT (component) DO UPDATE SET version = excluded.version WHERE version < excluded.version$$
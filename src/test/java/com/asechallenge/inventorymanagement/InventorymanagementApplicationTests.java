@@ -3,7 +3,9 @@ package com.asechallenge.inventorymanagement;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "inventory.movements.directory=target/stock-movements",
+        "inventory.catalog.snapshot.file=target/catalog.snapshot"})
 class InventorymanagementApplicationTests {
 
 	@Test
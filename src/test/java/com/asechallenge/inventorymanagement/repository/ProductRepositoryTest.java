@@ -0,0 +1,174 @@
+package com.asechallenge.inventorymanagement.repository;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the native SQL of ProductRepositoryCustomImpl and the triggers of schema.sql
+ * against a temporary SQLite database. Each test rolls back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ProductRepositoryTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + directory.resolve("inventory.db"));
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.insertProductsIgnoringDuplicates(List.of(
+                new Product("Laptop", "13inch", "Thin and light", 5L, 2L, "laptop13inch"),
+                new Product("Mouse", "", "Wireless", 4L, 1L, "mouse"),
+                new Product("Pencil", "HB", "Graphite", 50L, 10L, "pencilhb")));
+    }
+
+    @Test
+    void decreaseStockReturning_shouldReturnUpdatedRow() {
+        Optional<Product> updated = productRepository.decreaseStockReturning("LAPTOP13INCH", 3L);
+
+        assertEquals(2L, updated.orElseThrow().getStockQuantity());
+        assertEquals("laptop13inch", updated.get().getSku());
+    }
+
+    @Test
+    void decreaseStockReturning_shouldRefuseToGoNegative() {
+        Optional<Product> updated = productRepository.decreaseStockReturning("laptop13inch", 6L);
+
+        assertTrue(updated.isEmpty());
+        assertEquals(5L, stockOf("laptop13inch"));
+    }
+
+    @Test
+    void adjustStockBySkus_shouldOnlyApplyLinesThatKeepStockNonNegative() {
+        int[] affected = productRepository.adjustStockBySkus(
+                List.of("laptop13inch", "mouse", "missing"), List.of(-6L, -4L, 1L));
+
+        assertArrayEquals(new int[] {0, 1, 0}, affected);
+        assertEquals(5L, stockOf("laptop13inch"));
+        assertEquals(0L, stockOf("mouse"));
+    }
+
+    @Test
+    void updateDescriptionReturning_shouldReturnUpdatedRowOrEmpty() {
+        assertEquals("Refurbished",
+                productRepository.updateDescriptionReturning("mouse", "Refurbished").orElseThrow().getDescription());
+        assertTrue(productRepository.updateDescriptionReturning("missing", "Refurbished").isEmpty());
+    }
+
+    @Test
+    void findBySkuIgnoreCase_shouldMatchAnyCase() {
+        assertEquals("laptop13inch", productRepository.findBySkuIgnoreCase("Laptop13INCH").orElseThrow().getSku());
+        assertEquals(List.of("mouse"),
+                productRepository.findAllBySkus(List.of("MOUSE", "missing")).stream().map(Product::getSku).toList());
+        assertTrue(productRepository.findBySkuIgnoreCase("laptop13").isEmpty());
+    }
+
+    @Test
+    void findLowStockProducts_shouldFollowStockChangesMostUrgentFirst() {
+        productRepository.adjustStockBySkus(List.of("laptop13inch", "pencilhb"), List.of(-4L, -45L));
+        assertEquals(List.of("pencilhb", "laptop13inch"), skus(productRepository.findLowStockProducts()));
+
+        productRepository.increaseStockReturning("pencilhb", 20L);
+        productRepository.deleteReturning("laptop13inch");
+        assertTrue(productRepository.findLowStockProducts().isEmpty());
+    }
+
+    @Test
+    void stockAndDescriptionUpdates_shouldStampTheRowWithTheNextCatalogVersion() {
+        long before = productRepository.findCatalogVersion();
+
+        Product increased = productRepository.increaseStockReturning("laptop13inch", 1L).orElseThrow();
+        Product described = productRepository.updateDescriptionReturning("mouse", "Refurbished").orElseThrow();
+        productRepository.adjustStockBySkus(List.of("pencilhb"), List.of(-1L));
+
+        assertEquals(before + 1, increased.getVersion());
+        assertEquals(before + 2, described.getVersion());
+        assertEquals(before + 3, productRepository.findCatalogVersion());
+        assertEquals(List.of("laptop13inch", "mouse", "pencilhb"), skus(productRepository.findChangedSince(before)));
+        assertEquals(List.of("pencilhb"), skus(productRepository.findChangedSince(before + 2)));
+    }
+
+    @Test
+    void refusedStockChange_shouldNotMoveTheCatalogVersion() {
+        long before = productRepository.findCatalogVersion();
+
+        productRepository.decreaseStockReturning("mouse", 5L);
+
+        assertEquals(before, productRepository.findCatalogVersion());
+        assertTrue(productRepository.findChangedSince(before).isEmpty());
+    }
+
+    @Test
+    void deleteReturning_shouldRecordTheDeletionAtTheNextCatalogVersion() {
+        long before = productRepository.findCatalogVersion();
+
+        assertEquals("mouse", productRepository.deleteReturning("MOUSE").orElseThrow().getSku());
+        productRepository.deleteReturning("pencilhb");
+
+        assertEquals(before + 2, productRepository.findCatalogVersion());
+        assertEquals(List.of("mouse", "pencilhb"), productRepository.findSkusDeletedSince(before));
+        assertEquals(List.of("pencilhb"), productRepository.findSkusDeletedSince(before + 1));
+        assertTrue(productRepository.findChangedSince(before).isEmpty());
+        assertTrue(productRepository.deleteReturning("mouse").isEmpty());
+    }
+
+    @Test
+    void searchProducts_shouldRankNamePrefixThenNameOverDescriptionMatches() {
+        productRepository.insertProductsIgnoringDuplicates(List.of(
+                new Product("Mousepad", "XL", "Cloth", 7L, 1L, "mousepadxl"),
+                new Product("Cable", "USB", "Braided, for a mouse or keyboard", 9L, 1L, "cableusb"),
+                new Product("Gaming mouse", "", "RGB", 3L, 1L, "gamingmouse")));
+
+        assertEquals(List.of("mouse", "mousepadxl", "gamingmouse", "cableusb"),
+                skus(productRepository.searchProducts("mouse", 10)));
+        assertEquals(List.of("mouse", "mousepadxl"), skus(productRepository.searchProducts("mouse", 2)));
+        assertEquals(List.of("cableusb"), skus(productRepository.searchProducts("mouse usb", 10)));
+    }
+
+    @Test
+    void searchProducts_withOnlyShortTerms_shouldMatchNamePrefixThenVariantAndDescription() {
+        productRepository.insertProductsIgnoringDuplicates(List.of(
+                new Product("Phone", "X13", "OLED", 8L, 1L, "phonex13"),
+                new Product("Laptop", "15inch", "13 hour battery", 4L, 1L, "laptop15inch")));
+
+        List<String> found = skus(productRepository.searchProducts("13", 10));
+
+        assertEquals(3, found.size());
+        assertTrue(found.containsAll(List.of("laptop13inch", "phonex13", "laptop15inch")));
+        assertEquals(List.of("laptop13inch", "laptop15inch"), skus(productRepository.searchProducts("la", 10)));
+        assertEquals(1, productRepository.searchProducts("13", 1).size());
+    }
+
+    private List<String> skus(List<Product> products) {
+        return products.stream().map(Product::getSku).toList();
+    }
+
+    private long stockOf(String sku) {
+        Map<String, Long> quantities = productRepository.findStockQuantitiesBySkus(List.of(sku));
+        return quantities.get(sku);
+    }
+}
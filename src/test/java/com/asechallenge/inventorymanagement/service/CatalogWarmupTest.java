@@ -0,0 +1,157 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.ProductSnapshotFile;
+import com.asechallenge.inventorymanagement.repository.ProductSnapshotFile.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CatalogWarmupTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductRepository productRepository;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productCache = new ProductCache(true, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void snapshotFile_shouldRoundTripEveryColumn() throws Exception {
+        Path file = directory.resolve("catalog.snapshot");
+        List<Product> products = List.of(
+                new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 7L),
+                new Product("Laptop", "15inch", null, 0L, 3L, "laptop15inch", 9L),
+                new Product("Pencil", null, "HB", 100L, 10L, "pencil", 4L));
+
+        ProductSnapshotFile.write(file, new Snapshot(9L, products));
+        Snapshot read = ProductSnapshotFile.read(file).orElseThrow();
+
+        assertEquals(9L, read.catalogVersion());
+        assertEquals(3, read.products().size());
+        Product pencil = read.products().get(2);
+        assertEquals("Pencil", pencil.getName());
+        assertNull(pencil.getVariant());
+        assertEquals("pencil", pencil.getSku());
+        assertEquals(100L, pencil.getStockQuantity());
+        assertEquals(10L, pencil.getLowStockThreshold());
+        assertEquals(4L, pencil.getVersion());
+        assertNull(read.products().get(1).getDescription());
+        assertTrue(ProductSnapshotFile.read(directory.resolve("missing.snapshot")).isEmpty());
+    }
+
+    @Test
+    void start_withCurrentSnapshot_shouldWarmCacheWithoutScanningTable() throws Exception {
+        ProductSnapshotFile.write(directory.resolve("catalog.snapshot"),
+                new Snapshot(9L, List.of(new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 9L))));
+        when(productRepository.findCatalogVersion()).thenReturn(9L);
+
+        Health health = warmUp();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("snapshot", health.getDetails().get("source"));
+        assertEquals(5L, cached("laptop13inch").getStockQuantity());
+        verify(productRepository, never()).forEachProduct(any());
+    }
+
+    @Test
+    void start_withStaleSnapshot_shouldOnlyReloadChangedRows() throws Exception {
+        ProductSnapshotFile.write(directory.resolve("catalog.snapshot"), new Snapshot(9L, List.of(
+                new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 8L),
+                new Product("Mouse", null, "Wireless", 4L, 1L, "mouse", 9L))));
+        when(productRepository.findCatalogVersion()).thenReturn(11L);
+        when(productRepository.findChangedSince(9L)).thenReturn(List.of(
+                new Product("Laptop", "13inch", "Thin", 3L, 2L, "laptop13inch", 10L),
+                new Product("Pencil", null, "HB", 50L, 5L, "pencil", 11L)));
+        when(productRepository.count()).thenReturn(3L);
+
+        Health health = warmUp();
+
+        assertEquals("snapshot+changes", health.getDetails().get("source"));
+        assertEquals(3, health.getDetails().get("loaded"));
+        assertEquals(3L, cached("laptop13inch").getStockQuantity());
+        assertEquals(50L, cached("pencil").getStockQuantity());
+        verify(productRepository, never()).forEachProduct(any());
+    }
+
+    @Test
+    void start_withRowsDeletedSinceSnapshot_shouldReloadWholeTable() throws Exception {
+        ProductSnapshotFile.write(directory.resolve("catalog.snapshot"), new Snapshot(9L, List.of(
+                new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 8L),
+                new Product("Mouse", null, "Wireless", 4L, 1L, "mouse", 9L))));
+        when(productRepository.findCatalogVersion()).thenReturn(10L);
+        when(productRepository.count()).thenReturn(1L);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            consumer.accept(new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 8L));
+            return null;
+        }).when(productRepository).forEachProduct(any());
+
+        Health health = warmUp();
+
+        assertEquals("database", health.getDetails().get("source"));
+        assertEquals(1, health.getDetails().get("loaded"));
+    }
+
+    @Test
+    void start_withRowDeletedWhileWarming_shouldNotRestoreIt() throws Exception {
+        ProductSnapshotFile.write(directory.resolve("catalog.snapshot"), new Snapshot(9L, List.of(
+                new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 8L),
+                new Product("Mouse", null, "Wireless", 4L, 1L, "mouse", 9L))));
+        // The delete commits after the catalog was read but before its rows reach the cache
+        when(productRepository.findCatalogVersion()).thenAnswer(invocation -> {
+            productCache.evict("mouse");
+            return 9L;
+        });
+
+        Health health = warmUp();
+
+        assertEquals("snapshot", health.getDetails().get("source"));
+        assertEquals(5L, cached("laptop13inch").getStockQuantity());
+        assertTrue(productCache.get("mouse", sku -> Optional.empty()).isEmpty());
+    }
+
+    private Health warmUp() throws InterruptedException {
+        CatalogWarmup warmup = new CatalogWarmup(true, directory.resolve("catalog.snapshot"), productRepository,
+                productCache, new SimpleMeterRegistry(), mock(PlatformTransactionManager.class));
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+
+        warmup.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (warmup.health().getStatus() != Status.UP && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return warmup.health();
+    }
+
+    private Product cached(String sku) {
+        Optional<Product> product = productCache.get(sku, s -> Optional.empty());
+        return product.orElseThrow();
+    }
+}
@@ -0,0 +1,244 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HotStockLedgerTest {
+
+    private static final String SKU = "laptop13inch";
+
+    private ProductRepository productRepository;
+    private StockDeltaDeadLetterRepository deadLetterRepository;
+    private PlatformTransactionManager transactionManager;
+    private HotStockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findBySkuIgnoreCase(SKU)).thenReturn(Optional.of(product(10)));
+
+        deadLetterRepository = mock(StockDeltaDeadLetterRepository.class);
+
+        ledger = new HotStockLedger(List.of(), 8, productRepository, deadLetterRepository,
+                new InventoryMetrics(new SimpleMeterRegistry()), transactionManager);
+    }
+
+    @Test
+    void decrease_notHot_shouldFallBackToDatabasePath() {
+        assertNull(ledger.decrease(SKU, 1));
+    }
+
+    @Test
+    void decrease_spanningStripes_shouldPoolThemAndRejectOversell() {
+        ledger.promote(SKU);
+
+        // 10 units over 8 stripes: no single stripe holds 9
+        assertEquals(1L, ledger.decrease(SKU, 9).getStockQuantity());
+        assertThrows(InvalidStockValueException.class, () -> ledger.decrease(SKU, 2));
+        assertEquals(0L, ledger.decrease(SKU, 1).getStockQuantity());
+    }
+
+    @Test
+    void decrease_concurrentBuyers_shouldSellExactlyTheStock() throws Exception {
+        when(productRepository.findBySkuIgnoreCase(SKU)).thenReturn(Optional.of(product(1000)));
+        ledger.promote(SKU);
+
+        AtomicInteger sold = new AtomicInteger();
+        List<Callable<Void>> buyers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            buyers.add(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        ledger.decrease(SKU, 1);
+                        sold.incrementAndGet();
+                    } catch (InvalidStockValueException ex) {
+                        // Sold out
+                    }
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> future : executor.invokeAll(buyers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1000, sold.get());
+        assertEquals(0L, ledger.project(product(1000)).getStockQuantity());
+    }
+
+    @Test
+    void decrease_acrossStripesWhileUnitsMove_shouldOnlyFailWhenTheStripesAreShort() throws Exception {
+        when(productRepository.findBySkuIgnoreCase(SKU)).thenReturn(Optional.of(product(16)));
+        ledger.promote(SKU);
+        AtomicBoolean done = new AtomicBoolean();
+
+        // Movers add a unit from one thread, then take one from another: the unit lands on one
+        // stripe and leaves from another, while the stripes never hold fewer than 16
+        List<ExecutorService> takers = new ArrayList<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            ExecutorService taker = Executors.newSingleThreadExecutor();
+            takers.add(taker);
+            tasks.add(() -> {
+                while (!done.get()) {
+                    ledger.increase(SKU, 1);
+                    taker.submit(() -> ledger.decrease(SKU, 1)).get();
+                }
+                return null;
+            });
+        }
+        tasks.add(() -> {
+            try {
+                for (int i = 0; i < 5000; i++) {
+                    ledger.decrease(SKU, 16);
+                    ledger.increase(SKU, 16);
+                }
+                return null;
+            } finally {
+                done.set(true);
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            takers.forEach(ExecutorService::shutdown);
+        }
+
+        assertEquals(16L, ledger.project(product(16)).getStockQuantity());
+    }
+
+    @Test
+    void reconcileAll_shouldWriteNetDeltaAndAbsorbOutsideChanges() {
+        ledger.promote(SKU);
+        ledger.decrease(SKU, 4);
+        ledger.increase(SKU, 1);
+
+        // Row had 10, the ledger applies -3, and a batch adjustment elsewhere removed 2 more
+        when(productRepository.adjustStockBySkus(List.of(SKU), List.of(-3L))).thenReturn(new int[] {1});
+        when(productRepository.findStockQuantitiesBySkus(anyList())).thenReturn(Map.of(SKU, 5L));
+        ledger.reconcileAll();
+
+        verify(productRepository).adjustStockBySkus(List.of(SKU), List.of(-3L));
+        assertEquals(5L, ledger.project(product(10)).getStockQuantity());
+
+        // Nothing pending: the row is only read back, in a read-only transaction
+        ArgumentCaptor<TransactionDefinition> transaction = ArgumentCaptor.forClass(TransactionDefinition.class);
+        ledger.reconcileAll();
+        verify(transactionManager, times(2)).getTransaction(transaction.capture());
+        assertTrue(transaction.getValue().isReadOnly());
+        verify(productRepository).adjustStockBySkus(anyList(), anyList());
+        assertEquals(5L, ledger.project(product(10)).getStockQuantity());
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void reconcileAll_rowTakenByAnotherPath_shouldStopAtZeroAndDeadLetterTheShortfall() {
+        ledger.promote(SKU);
+        ledger.decrease(SKU, 8);
+
+        // Another path took 7 of the 10 units first: the row can only cover 3 of the 8 sold
+        when(productRepository.adjustStockBySkus(List.of(SKU), List.of(-8L))).thenReturn(new int[] {0});
+        when(productRepository.adjustStockBySkus(List.of(SKU), List.of(-3L))).thenReturn(new int[] {1});
+        when(productRepository.findStockQuantitiesBySkus(anyList()))
+                .thenReturn(Map.of(SKU, 3L))
+                .thenReturn(Map.of(SKU, 0L));
+        ledger.reconcileAll();
+
+        verify(productRepository).adjustStockBySkus(List.of(SKU), List.of(-3L));
+        ArgumentCaptor<StockDeltaDeadLetter> deadLetter = ArgumentCaptor.forClass(StockDeltaDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals(-5L, deadLetter.getValue().getDelta());
+        assertEquals(StockDeltaDeadLetter.Source.HOT_LEDGER, deadLetter.getValue().getSource());
+        assertEquals(0L, ledger.project(product(10)).getStockQuantity());
+    }
+
+    @Test
+    void reconcileAll_outsideChangeBeyondLedgerStock_shouldDeadLetterInsteadOfClamping() {
+        ledger.promote(SKU);
+        ledger.decrease(SKU, 4);
+
+        // Another path took 5 of the 10 units, so the ledger's -4 still fits; while it is
+        // written the ledger sells its last 6 units, 5 of which the row never held
+        when(productRepository.adjustStockBySkus(List.of(SKU), List.of(-4L))).thenAnswer(invocation -> {
+            ledger.decrease(SKU, 6);
+            return new int[] {1};
+        });
+        when(productRepository.findStockQuantitiesBySkus(anyList())).thenReturn(Map.of(SKU, 1L));
+        ledger.reconcileAll();
+        assertEquals(0L, ledger.project(product(10)).getStockQuantity());
+
+        // The next write takes the row's last unit and records the other 5
+        when(productRepository.adjustStockBySkus(List.of(SKU), List.of(-1L))).thenReturn(new int[] {1});
+        when(productRepository.findStockQuantitiesBySkus(anyList())).thenReturn(Map.of(SKU, 0L));
+        ledger.reconcileAll();
+
+        verify(productRepository).adjustStockBySkus(List.of(SKU), List.of(-1L));
+        ArgumentCaptor<StockDeltaDeadLetter> deadLetter = ArgumentCaptor.forClass(StockDeltaDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals(-5L, deadLetter.getValue().getDelta());
+        assertEquals(0L, ledger.project(product(10)).getStockQuantity());
+    }
+
+    @Test
+    void demote_shouldWriteDeltaAndReturnToDatabasePath() {
+        ledger.promote(SKU);
+        ledger.decrease(SKU, 2);
+        when(productRepository.adjustStockBySkus(List.of(SKU), List.of(-2L))).thenReturn(new int[] {1});
+        when(productRepository.findStockQuantitiesBySkus(anyList())).thenReturn(Map.of(SKU, 8L));
+
+        ledger.demote(SKU);
+
+        verify(productRepository).adjustStockBySkus(List.of(SKU), List.of(-2L));
+        assertFalse(ledger.isHot(SKU));
+        assertNull(ledger.decrease(SKU, 1));
+    }
+
+    private Product product(long stock) {
+        return new Product("Laptop", "13inch", "desc", stock, 2L, SKU);
+    }
+}
@@ -0,0 +1,49 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InventoryMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new InventoryMetrics(meterRegistry);
+    }
+
+    @Test
+    void onStockChanged_shouldCountOnlyThresholdCrossings() {
+        // threshold 5: 6 -> 4 enters low stock, 4 -> 3 stays low, 3 -> 8 leaves low stock, 8 -> 9 stays above
+        metrics.onStockChanged(new StockChangedEvent(product(4L), -2L));
+        metrics.onStockChanged(new StockChangedEvent(product(3L), -1L));
+        metrics.onStockChanged(new StockChangedEvent(product(8L), 5L));
+        metrics.onStockChanged(new StockChangedEvent(product(9L), 1L));
+
+        assertEquals(1.0, crossings("entered"));
+        assertEquals(1.0, crossings("left"));
+    }
+
+    @Test
+    void duplicateCreates_shouldAddCount() {
+        metrics.duplicateCreates(1);
+        metrics.duplicateCreates(3);
+
+        assertEquals(4.0, meterRegistry.counter("inventory.products.duplicate.creates").count());
+    }
+
+    private double crossings(String direction) {
+        return meterRegistry.counter("inventory.low.stock.crossings", "direction", direction).count();
+    }
+
+    private Product product(Long stock) {
+        return new Product("Laptop", "13inch", "desc", stock, 5L, "laptop13inch");
+    }
+}
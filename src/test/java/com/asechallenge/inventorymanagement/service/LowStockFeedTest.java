@@ -0,0 +1,172 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LowStockFeedTest {
+
+    private ProductRepository productRepository;
+    private LowStockFeed feed;
+    private RecordingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findCatalogVersion()).thenReturn(100L);
+        feed = new LowStockFeed(2, 3, productRepository, Runnable::run);
+        feed.loadCatalogVersion();
+        listener = new RecordingListener();
+    }
+
+    @Test
+    void onStockChanged_crossingThreshold_shouldPublishBothDirections() {
+        feed.subscribe(null, listener);
+
+        // threshold 5: 6 -> 4 enters low stock, 4 -> 3 stays low, 3 -> 8 leaves low stock
+        feed.onStockChanged(new StockChangedEvent(product(4L), -2L));
+        feed.onStockChanged(new StockChangedEvent(product(3L), -1L));
+        feed.onStockChanged(new StockChangedEvent(product(8L), 5L));
+
+        assertEquals(2, listener.transitions.size());
+        assertEquals(LowStockTransition.Direction.ENTERED_LOW_STOCK, listener.transitions.get(0).getDirection());
+        assertEquals(LowStockTransition.Direction.LEFT_LOW_STOCK, listener.transitions.get(1).getDirection());
+    }
+
+    @Test
+    void subscribe_withResumeToken_shouldReplayMissedTransitions() {
+        RecordingListener first = new RecordingListener();
+        feed.subscribe(null, first);
+        feed.onStockChanged(new StockChangedEvent(product(4L), -2L));
+        feed.onStockChanged(new StockChangedEvent(product(8L), 4L));
+
+        feed.subscribe(first.transitions.get(0).getToken(), listener);
+
+        assertEquals(1, listener.transitions.size());
+        assertEquals(first.transitions.get(1).getToken(), listener.transitions.get(0).getToken());
+    }
+
+    @Test
+    void subscribe_withExpiredToken_shouldReset() {
+        RecordingListener first = new RecordingListener();
+        feed.subscribe(null, first);
+        feed.onStockChanged(new StockChangedEvent(product(4L), -2L));
+        feed.onStockChanged(new StockChangedEvent(product(8L), 4L));
+        feed.onStockChanged(new StockChangedEvent(product(4L), -4L));
+        feed.onStockChanged(new StockChangedEvent(product(8L), 4L));
+
+        // Only the last two transitions are retained, so a client that saw only the first has missed one
+        feed.subscribe(first.transitions.get(0).getToken(), listener);
+        feed.subscribe("someOtherRun-1", listener);
+
+        assertEquals(2, listener.resets);
+        assertTrue(listener.transitions.isEmpty());
+    }
+
+    @Test
+    void tokens_shouldFollowTheCatalogVersionAndAlwaysIncrease() {
+        feed.subscribe(null, listener);
+
+        feed.onStockChanged(new StockChangedEvent(product(4L, 120L), -2L));
+        // An in-memory stock change leaves the row's version where it was
+        feed.onStockChanged(new StockChangedEvent(product(8L, 120L), 4L));
+
+        assertEquals(List.of("120", "121"), listener.transitions.stream().map(LowStockTransition::getToken).toList());
+    }
+
+    @Test
+    void subscribe_afterRestart_shouldResumeOnlyWhenTheCatalogHasNotChanged() {
+        when(productRepository.findCatalogVersion()).thenReturn(120L);
+        LowStockFeed restarted = new LowStockFeed(2, 3, productRepository, Runnable::run);
+        restarted.loadCatalogVersion();
+
+        restarted.subscribe("120", listener);
+        assertEquals(0, listener.resets);
+
+        restarted.subscribe("119", listener);
+        restarted.subscribe("121", listener);
+        assertEquals(2, listener.resets);
+    }
+
+    @Test
+    void slowSubscriber_shouldBeDroppedWithoutHoldingUpOthers() throws Exception {
+        ExecutorService dispatcher = Executors.newCachedThreadPool();
+        LowStockFeed threaded = new LowStockFeed(10, 3, productRepository, dispatcher);
+        threaded.loadCatalogVersion();
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingListener slow = new RecordingListener() {
+            @Override
+            public void onTransition(LowStockTransition transition) throws Exception {
+                delivering.countDown();
+                stalled.await();
+                super.onTransition(transition);
+            }
+        };
+        RecordingListener fast = new RecordingListener();
+        threaded.subscribe(null, slow);
+        threaded.subscribe(null, fast);
+
+        // The slow client is stuck on the first event; three more fill its queue, the fifth overflows it
+        long deadline = System.currentTimeMillis() + 5000;
+        for (int i = 0; i < 5; i++) {
+            threaded.onStockChanged(new StockChangedEvent(product(i % 2 == 0 ? 4L : 8L), i % 2 == 0 ? -4L : 4L));
+            assertTrue(delivering.await(5, TimeUnit.SECONDS));
+            // The fast client keeps up
+            while (fast.transitions.size() <= i && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        stalled.countDown();
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(5, fast.transitions.size());
+        assertEquals(0, fast.drops);
+        assertEquals(1, slow.transitions.size());
+        assertEquals(1, slow.drops);
+    }
+
+    private Product product(Long stock, Long version) {
+        return new Product("Laptop", "13inch", "desc", stock, 5L, "laptop13inch", version);
+    }
+
+    private Product product(Long stock) {
+        return new Product("Laptop", "13inch", "desc", stock, 5L, "laptop13inch");
+    }
+
+    private static class RecordingListener implements LowStockFeed.Listener {
+        private final List<LowStockTransition> transitions = new CopyOnWriteArrayList<>();
+        private volatile int resets;
+        private volatile int drops;
+
+        @Override
+        public void onTransition(LowStockTransition transition) throws Exception {
+            transitions.add(transition);
+        }
+
+        @Override
+        public void onReset(String token) {
+            resets++;
+        }
+
+        @Override
+        public void onDropped() {
+            drops++;
+        }
+    }
+}
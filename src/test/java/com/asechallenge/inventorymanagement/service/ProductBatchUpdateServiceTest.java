@@ -0,0 +1,177 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentRequestDTO;
+import com.asechallenge.inventorymanagement.dto.BatchStockAdjustmentResponseDTO;
+import com.asechallenge.inventorymanagement.dto.StockAdjustmentLineDTO;
+import com.asechallenge.inventorymanagement.dto.StockAdjustmentResultDTO.Status;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.util.SkuGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProductBatchUpdateServiceTest {
+
+    private ProductRepository productRepository;
+    private SimpleTransactionStatus transactionStatus;
+    private HotStockLedger hotStockLedger;
+    private StockReservationIndex reservationIndex;
+    private ApplicationEventPublisher eventPublisher;
+    private ProductBatchUpdateService batchUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        transactionStatus = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        hotStockLedger = mock(HotStockLedger.class);
+        reservationIndex = new StockReservationIndex();
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        batchUpdateService = new ProductBatchUpdateService(productRepository, transactionManager,
+                new ProductCache(true, 100, Duration.ofMinutes(1)), mock(StockWriteBehindBuffer.class),
+                hotStockLedger, reservationIndex, eventPublisher);
+    }
+
+    @Test
+    void adjustStock_zeroDelta_shouldThrowException() {
+        BatchStockAdjustmentRequestDTO request = request(BatchStockAdjustmentRequestDTO.Mode.BEST_EFFORT,
+                line("Laptop", "13inch", 0L));
+
+        assertThrows(InvalidStockValueException.class, () -> batchUpdateService.adjustStock(request));
+    }
+
+    @Test
+    void adjustStock_allOrNothingWithShortLine_shouldRollBack() {
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenReturn(new int[] {1, 0});
+        when(productRepository.findAllBySkus(anyCollection()))
+                .thenReturn(List.of(product("Laptop", "13inch", 7L), product("Mouse", "", 0L)));
+
+        BatchStockAdjustmentResponseDTO response = batchUpdateService.adjustStock(
+                request(BatchStockAdjustmentRequestDTO.Mode.ALL_OR_NOTHING,
+                        line("Laptop", "13inch", 2L), line("Mouse", null, -5L)));
+
+        assertFalse(response.isCommitted());
+        assertTrue(transactionStatus.isRollbackOnly());
+        assertEquals(Status.ROLLED_BACK, response.getResults().get(0).getStatus());
+        assertEquals(Status.INSUFFICIENT_STOCK, response.getResults().get(1).getStatus());
+        assertNull(response.getResults().get(0).getStockQuantity());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void adjustStock_bestEffort_shouldCommitAppliedLinesAndReportMissing() {
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenReturn(new int[] {1, 0});
+        when(productRepository.findAllBySkus(anyCollection())).thenReturn(List.of(product("Laptop", "13inch", 7L)));
+
+        BatchStockAdjustmentResponseDTO response = batchUpdateService.adjustStock(
+                request(BatchStockAdjustmentRequestDTO.Mode.BEST_EFFORT,
+                        line("Laptop", "13inch", 2L), line("Ghost", "", -1L)));
+
+        assertTrue(response.isCommitted());
+        assertFalse(transactionStatus.isRollbackOnly());
+        assertEquals(1, response.getAppliedLines());
+        assertEquals(7L, response.getResults().get(0).getStockQuantity());
+        assertEquals(Status.NOT_FOUND, response.getResults().get(1).getStatus());
+    }
+
+    @Test
+    void adjustStock_repeatedSku_shouldPublishOneEventWithTheNetDelta() {
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenReturn(new int[] {1, 1});
+        when(productRepository.findAllBySkus(anyCollection())).thenReturn(List.of(product("Laptop", "13inch", 7L)));
+
+        batchUpdateService.adjustStock(request(BatchStockAdjustmentRequestDTO.Mode.ALL_OR_NOTHING,
+                line("Laptop", "13inch", 5L), line("Laptop", "13inch", -3L)));
+
+        ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2L, event.getValue().getDelta());
+        assertEquals(5L, event.getValue().getPreviousQuantity());
+    }
+
+    @Test
+    void adjustStock_decreaseIntoReservedUnits_shouldBeInsufficient() {
+        reservationIndex.hold("laptop13inch", "Laptop", "13inch", 8L, Instant.now().plusSeconds(60), () -> 10L);
+
+        BatchStockAdjustmentResponseDTO response = batchUpdateService.adjustStock(
+                request(BatchStockAdjustmentRequestDTO.Mode.BEST_EFFORT, line("Laptop", "13inch", -3L)));
+
+        assertEquals(Status.INSUFFICIENT_STOCK, response.getResults().get(0).getStatus());
+        verify(productRepository, never()).adjustStockBySkus(anyList(), anyList());
+    }
+
+    @Test
+    void adjustStock_hotSku_shouldGoThroughTheLedger() {
+        when(hotStockLedger.isHot("laptop13inch")).thenReturn(true);
+        when(hotStockLedger.decrease("laptop13inch", 3L)).thenReturn(product("Laptop", "13inch", 7L));
+
+        BatchStockAdjustmentResponseDTO response = batchUpdateService.adjustStock(
+                request(BatchStockAdjustmentRequestDTO.Mode.ALL_OR_NOTHING, line("Laptop", "13inch", -3L)));
+
+        assertTrue(response.isCommitted());
+        assertEquals(7L, response.getResults().get(0).getStockQuantity());
+        verify(productRepository, never()).adjustStockBySkus(anyList(), anyList());
+        verify(eventPublisher).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    void adjustStock_allOrNothingWithShortHotSku_shouldUndoLedgerDecreases() {
+        when(hotStockLedger.isHot(any())).thenReturn(true);
+        when(hotStockLedger.decrease("laptop13inch", 5L)).thenReturn(product("Laptop", "13inch", 5L));
+        when(hotStockLedger.decrease("mouse", 2L)).thenThrow(new InvalidStockValueException("short"));
+        when(hotStockLedger.increase("laptop13inch", 5L)).thenReturn(product("Laptop", "13inch", 10L));
+
+        BatchStockAdjustmentResponseDTO response = batchUpdateService.adjustStock(
+                request(BatchStockAdjustmentRequestDTO.Mode.ALL_OR_NOTHING,
+                        line("Laptop", "13inch", -5L), line("Mouse", null, -2L)));
+
+        assertFalse(response.isCommitted());
+        verify(hotStockLedger).increase("laptop13inch", 5L);
+        assertEquals(Status.ROLLED_BACK, response.getResults().get(0).getStatus());
+        assertEquals(Status.INSUFFICIENT_STOCK, response.getResults().get(1).getStatus());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private Product product(String name, String variant, long stock) {
+        return new Product(name, variant, "desc", stock, 2L, SkuGenerator.generateSKU(name, variant));
+    }
+
+    private BatchStockAdjustmentRequestDTO request(BatchStockAdjustmentRequestDTO.Mode mode,
+                                                   StockAdjustmentLineDTO... lines) {
+        BatchStockAdjustmentRequestDTO request = new BatchStockAdjustmentRequestDTO();
+        request.setMode(mode);
+        request.setLines(List.of(lines));
+        return request;
+    }
+
+    private StockAdjustmentLineDTO line(String name, String variant, Long delta) {
+        StockAdjustmentLineDTO line = new StockAdjustmentLineDTO();
+        line.setName(name);
+        line.setVariant(variant);
+        line.setDelta(delta);
+        return line;
+    }
+}
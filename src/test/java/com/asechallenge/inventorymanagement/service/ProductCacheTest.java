@@ -0,0 +1,83 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductCacheTest {
+
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(true, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void put_shouldUpdateEntryInPlace() {
+        productCache.put(new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch"));
+        productCache.put(new Product("Laptop", "13inch", "desc", 9L, 2L, "laptop13inch"));
+
+        Optional<Product> cached = productCache.get("LAPTOP13INCH", sku -> Optional.empty());
+
+        assertEquals(9L, cached.get().getStockQuantity());
+        assertEquals(1, productCache.stats().hitCount());
+    }
+
+    @Test
+    void evict_shouldForceReload() {
+        productCache.put(new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch"));
+        productCache.evict("laptop13inch");
+
+        Optional<Product> cached = productCache.get("laptop13inch", sku -> Optional.empty());
+
+        assertTrue(cached.isEmpty());
+        assertEquals(1, productCache.stats().missCount());
+    }
+
+    @Test
+    void warm_shouldSkipEntriesWrittenOrEvictedSinceWarmingBegan() {
+        productCache.beginWarming();
+        productCache.evict("laptop13inch");
+        productCache.put(new Product("Mouse", null, "desc", 9L, 1L, "mouse"));
+
+        productCache.warm(new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch"));
+        productCache.warm(new Product("Mouse", null, "desc", 4L, 1L, "mouse"));
+        productCache.warm(new Product("Pencil", null, "desc", 50L, 5L, "pencil"));
+        productCache.endWarming();
+
+        assertTrue(productCache.get("laptop13inch", sku -> Optional.empty()).isEmpty());
+        assertEquals(9L, productCache.get("mouse", sku -> Optional.empty()).get().getStockQuantity());
+        assertEquals(50L, productCache.get("pencil", sku -> Optional.empty()).get().getStockQuantity());
+    }
+
+    @Test
+    void disabled_shouldAlwaysCallLoader() {
+        ProductCache disabled = new ProductCache(false, 100, Duration.ofMinutes(1));
+        disabled.put(new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch"));
+
+        assertTrue(disabled.get("laptop13inch", sku -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void bindTo_shouldExportHitsAndMissesOfProductsCache() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productCache.bindTo(registry);
+        productCache.put(new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch"));
+
+        productCache.get("laptop13inch", sku -> Optional.empty());
+        productCache.get("mouse", sku -> Optional.empty());
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "products", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "products", "result", "miss")
+                .functionCounter().count());
+    }
+}
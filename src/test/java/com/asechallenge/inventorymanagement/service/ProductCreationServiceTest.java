@@ -15,7 +15,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.util.Optional;
+import java.time.Duration;
 
 public class ProductCreationServiceTest {
 
@@ -25,7 +28,8 @@ public class ProductCreationServiceTest {
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        creationService = new ProductCreationService(productRepository);
+        creationService = new ProductCreationService(productRepository, new ProductCache(true, 100, Duration.ofMinutes(1)),
+                mock(StockMovementJournal.class), new InventoryMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
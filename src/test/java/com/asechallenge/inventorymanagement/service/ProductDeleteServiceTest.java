@@ -11,6 +11,9 @@ import com.asechallenge.inventorymanagement.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.Optional;
+
 public class ProductDeleteServiceTest {
 
     private ProductRepository productRepository;
@@ -19,12 +22,13 @@ public class ProductDeleteServiceTest {
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        deleteService = new ProductDeleteService(productRepository);
+        deleteService = new ProductDeleteService(productRepository, new ProductCache(true, 100, Duration.ofMinutes(1)),
+                mock(HotStockLedger.class), mock(StockWriteBehindBuffer.class), mock(StockMovementJournal.class));
     }
 
     @Test
     void deleteProduct_notFound_shouldThrowException() {
-        when(productRepository.deleteBySkuIgnoreCase(anyString())).thenReturn(0);
+        when(productRepository.deleteReturning(anyString())).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> 
             deleteService.deleteProduct("Laptop", "13inch")
@@ -0,0 +1,115 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.dto.ProductImportErrorDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO;
+import com.asechallenge.inventorymanagement.dto.ProductImportResponseDTO.Format;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProductImportServiceTest {
+
+    private ProductRepository productRepository;
+    private ProductImportService importService;
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<String>> insertedChunks;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // Every SKU containing "existing" is already in the database
+        insertedChunks = new ArrayList<>();
+        when(productRepository.insertProductsIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            insertedChunks.add(chunk.stream().map(Product::getSku).toList());
+            return chunk.stream().mapToInt(p -> p.getSku().contains("existing") ? 0 : 1).toArray();
+        });
+
+        meterRegistry = new SimpleMeterRegistry();
+        InventoryMetrics inventoryMetrics = new InventoryMetrics(meterRegistry);
+        ProductCreationService creationService = new ProductCreationService(
+                productRepository, new ProductCache(true, 100, Duration.ofMinutes(1)), mock(StockMovementJournal.class),
+                inventoryMetrics);
+        importService = new ProductImportService(productRepository, creationService, mock(StockMovementJournal.class),
+                inventoryMetrics, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2);
+    }
+
+    @Test
+    void importProducts_csv_shouldInsertInChunksAndReportRejectedRows() {
+        String csv = """
+                name,variant,description,stockQuantity,lowStockThreshold
+                Laptop,13 inch,"Thin, light",10,2
+                Mouse,,,,1
+                Laptop,13INCH,again,1,1
+                Existing,,,5,1
+                Monitor,,,many,1
+                Keyboard,,,3,
+                Webcam,HD,,0,1
+                """;
+
+        ProductImportResponseDTO response = importService.importProducts(stream(csv), Format.CSV);
+
+        assertEquals(7, response.getReceivedRows());
+        assertEquals(3, response.getImportedRows());
+        assertEquals(4, response.getRejectedRows());
+        assertEquals(List.of(List.of("laptop13inch", "mouse"), List.of("existing", "webcamHd")), insertedChunks);
+
+        List<ProductImportErrorDTO> errors = response.getErrors();
+        assertEquals(List.of(4, 6, 7, 5), errors.stream().map(ProductImportErrorDTO::getLine).toList());
+        assertEquals("Duplicate of line 2", errors.get(0).getMessage());
+        assertEquals("stockQuantity must be a whole number", errors.get(1).getMessage());
+        assertEquals("Low stock threshold is required", errors.get(2).getMessage());
+        assertEquals("existing", errors.get(3).getSku());
+        assertEquals(1.0, meterRegistry.counter("inventory.products.duplicate.creates").count());
+    }
+
+    @Test
+    void importProducts_ndjson_shouldReportMalformedAndUnknownLines() {
+        String ndjson = """
+                {"name":"Laptop","variant":"13inch","lowStockThreshold":2}
+
+                {"name":"Mouse",
+                {"name":"Pad","colour":"red","lowStockThreshold":1}
+                """;
+
+        ProductImportResponseDTO response = importService.importProducts(stream(ndjson), Format.NDJSON);
+
+        assertEquals(3, response.getReceivedRows());
+        assertEquals(1, response.getImportedRows());
+        assertEquals(List.of(3, 4), response.getErrors().stream().map(ProductImportErrorDTO::getLine).toList());
+        assertEquals("Unknown property: colour", response.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void importProducts_csvUnknownColumn_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importProducts(stream("name,colour\nLaptop,red\n"), Format.CSV));
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
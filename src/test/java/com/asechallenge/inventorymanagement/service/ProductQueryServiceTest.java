@@ -1,54 +1,210 @@
 package com.asechallenge.inventorymanagement.service;
 
+import com.asechallenge.inventorymanagement.dto.ProductKeyDTO;
+import com.asechallenge.inventorymanagement.dto.ProductLookupResultDTO;
+import com.asechallenge.inventorymanagement.entity.Product;
 import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
 import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+import com.asechallenge.inventorymanagement.repository.StockJournalCheckpointRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.time.Duration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ProductQueryServiceTest {
 
+    @TempDir
+    Path tempDir;
+
     private ProductRepository productRepository;
+    private HotStockLedger noHotSkus;
     private ProductQueryService queryService;
 
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        queryService = new ProductQueryService(productRepository);
+        noHotSkus = new HotStockLedger(List.of(), 16, productRepository,
+                mock(StockDeltaDeadLetterRepository.class), mock(InventoryMetrics.class),
+                mock(PlatformTransactionManager.class));
+        queryService = new ProductQueryService(productRepository, new ProductCache(true, 100, Duration.ofMinutes(1)),
+                noHotSkus, writeBehindBuffer(false), mock(ProductReadStore.class));
+    }
+
+    private StockWriteBehindBuffer writeBehindBuffer(boolean enabled) {
+        return new StockWriteBehindBuffer(enabled, 100, tempDir.resolve("journal"), productRepository,
+                mock(StockJournalCheckpointRepository.class), mock(StockDeltaDeadLetterRepository.class),
+                mock(InventoryMetrics.class), mock(PlatformTransactionManager.class));
     }
 
     @Test
-    void getAllProducts_emptyList_shouldThrowException() {
+    void getAllProducts_emptyList_shouldReturnEmptyList() {
         when(productRepository.findAll()).thenReturn(Collections.emptyList());
 
-        assertThrows(ProductNotFoundException.class, () -> queryService.getAllProducts());
+        assertTrue(queryService.getAllProducts().isEmpty());
     }
 
     @Test
-    void getProductsByName_noMatch_shouldThrowException() {
-        when(productRepository.findProductsByNameContainingIgnoreCase("NonExistent"))
-                .thenReturn(Collections.emptyList());
+    void getProductsByName_noMatch_shouldReturnEmptyList() {
+        when(productRepository.findByNameSubstring("NonExistent")).thenReturn(Collections.emptyList());
 
-        assertThrows(ProductNotFoundException.class, () -> queryService.getProductsByName("NonExistent"));
+        assertTrue(queryService.getProductsByName("NonExistent").isEmpty());
     }
 
     @Test
     void getProductByNameAndVariant_notFound_shouldThrowException() {
         when(productRepository.findBySkuIgnoreCase("laptop13inch")).thenReturn(Optional.empty());
 
-        assertThrows(ProductNotFoundException.class, () -> queryService.getProductByNameAndVariant("Laptop", "13inch"));
+        ProductNotFoundException ex = assertThrows(ProductNotFoundException.class,
+                () -> queryService.getProductByNameAndVariant("Laptop", "13inch"));
+        assertEquals("No product found for name 'Laptop' and variant '13inch'", ex.getMessage());
+        assertEquals(0, ex.getStackTrace().length);
     }
 
     @Test
-    void getLowStockProducts_emptyList_shouldThrowException() {
+    void getLowStockProducts_emptyList_shouldReturnEmptyList() {
         when(productRepository.findLowStockProducts()).thenReturn(Collections.emptyList());
 
-        assertThrows(ProductNotFoundException.class, () -> queryService.getLowStockProducts());
+        assertTrue(queryService.getLowStockProducts().isEmpty());
+    }
+
+    @Test
+    void lookupProducts_shouldKeepRequestOrderAndMarkMissingProducts() {
+        when(productRepository.findAllBySkus(anyCollection())).thenReturn(List.of(
+                new Product("Phone", "X", "desc", 3L, 5L, "phoneX"),
+                new Product("Laptop", "13inch", "desc", 10L, 5L, "laptop13inch")));
+
+        List<ProductLookupResultDTO> results = queryService.lookupProducts(
+                List.of(key("Laptop", "13inch"), key("Tablet", null), key(" phone ", "x")));
+
+        assertEquals(3, results.size());
+        assertEquals(ProductLookupResultDTO.Status.FOUND, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getProduct().getStockQuantity());
+        assertEquals(ProductLookupResultDTO.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals("tablet", results.get(1).getSku());
+        assertEquals("phoneX", results.get(2).getProduct().getSku());
+        verify(productRepository, times(1)).findAllBySkus(anyCollection());
+
+        // Served from the cache the second time
+        queryService.lookupProducts(List.of(key("Laptop", "13inch")));
+        verify(productRepository, times(1)).findAllBySkus(anyCollection());
+    }
+
+    @Test
+    void getProductsPage_extraRow_shouldReportNextPage() {
+        Product a = new Product("A", "", "desc", 1L, 1L, "a");
+        Product b = new Product("B", "", "desc", 1L, 1L, "b");
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(a, b));
+
+        Slice<Product> page = queryService.getProductsPage(null, 1);
+
+        assertTrue(page.hasNext());
+        assertEquals(List.of(a), page.getContent());
+    }
+
+    @Test
+    void getProductsPage_lastPage_shouldNotReportNextPage() {
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(Collections.emptyList());
+
+        assertFalse(queryService.getProductsPage(null, 10).hasNext());
+    }
+
+    @Test
+    void getProductsPage_oversizedLimit_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> queryService.getProductsPage(null, 5000));
+    }
+
+    @Test
+    void getProductByNameAndVariant_repeatedLookup_shouldBeServedFromCache() {
+        Product product = new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch");
+        when(productRepository.findBySkuIgnoreCase("laptop13inch")).thenReturn(Optional.of(product));
+
+        queryService.getProductByNameAndVariant("Laptop", "13inch");
+        queryService.getProductByNameAndVariant("LAPTOP ", "13inch");
+
+        verify(productRepository, times(1)).findBySkuIgnoreCase("laptop13inch");
+    }
+
+    @Test
+    void getProductByNameAndVariant_fromReadStore_shouldApplyUnflushedWriteBehindDeltas() throws Exception {
+        Product committed = new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch");
+        when(productRepository.findBySkuIgnoreCase("laptop13inch")).thenReturn(Optional.of(committed));
+        ProductReadStore readStore = mock(ProductReadStore.class);
+        when(readStore.isReady()).thenReturn(true);
+        when(readStore.find("laptop13inch")).thenReturn(Optional.of(committed));
+        StockWriteBehindBuffer buffer = writeBehindBuffer(true);
+        buffer.recover();
+        queryService = new ProductQueryService(productRepository, new ProductCache(true, 100, Duration.ofMinutes(1)),
+                noHotSkus, buffer, readStore);
+
+        buffer.decrease("laptop13inch", 2L, "Laptop", "13inch");
+
+        assertEquals(3L, queryService.getProductByNameAndVariant("Laptop", "13inch").getStockQuantity());
+    }
+
+    @Test
+    void getLowStockProducts_page_shouldRequestOffsetAndSize() {
+        Product product = new Product("Laptop", "13inch", "desc", 1L, 5L, "laptop13inch");
+        when(productRepository.findLowStockProducts(PageRequest.of(2, 10))).thenReturn(List.of(product));
+
+        assertEquals(List.of(product), queryService.getLowStockProducts(2, 10));
+    }
+
+    @Test
+    void getLowStockProducts_negativePage_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> queryService.getLowStockProducts(-1, 10));
+    }
+
+    @Test
+    void getProductsByName_shortName_shouldFallBackToContainsQuery() {
+        Product product = new Product("TV", "55inch", "Smart TV", 4L, 2L, "tv55inch");
+        when(productRepository.findProductsByNameContainingIgnoreCase("TV")).thenReturn(List.of(product));
+
+        assertEquals(List.of(product), queryService.getProductsByName(" TV "));
+    }
+
+    @Test
+    void searchProducts_shouldTrimQueryAndPassLimit() {
+        Product product = new Product("Laptop", "13inch", "Ultrabook", 10L, 2L, "laptop13inch");
+        when(productRepository.searchProducts("lapt", 20)).thenReturn(List.of(product));
+
+        assertEquals(List.of(product), queryService.searchProducts("  lapt ", 20));
+    }
+
+    @Test
+    void searchProducts_blankQuery_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> queryService.searchProducts("   ", 20));
+    }
+
+    @Test
+    void searchProducts_oversizedLimit_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> queryService.searchProducts("laptop", ProductQueryService.MAX_SEARCH_RESULTS + 1));
+    }
+
+    private ProductKeyDTO key(String name, String variant) {
+        ProductKeyDTO key = new ProductKeyDTO();
+        key.setName(name);
+        key.setVariant(variant);
+        return key;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProductReadStoreTest {
+
+    private ProductRepository productRepository;
+    private ProductReadStore readStore;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        ObjectProvider<PlatformTransactionManager> transactionManager = mock(ObjectProvider.class);
+        when(transactionManager.getObject()).thenReturn(mock(PlatformTransactionManager.class));
+        readStore = new ProductReadStore(true, 1000, productRepository, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void load_shouldServeLookupsCaseInsensitivelyWithEveryField() {
+        load(10L, List.of(
+                new Product("Laptop", "13inch", "Thin", 5L, 2L, "laptop13inch", 7L),
+                new Product("Pencil", null, null, 1L, 10L, "pencil", 9L)));
+
+        Product laptop = readStore.find("LAPTOP13INCH").orElseThrow();
+        Product pencil = readStore.find("pencil").orElseThrow();
+
+        assertTrue(readStore.isReady());
+        assertEquals("laptop13inch", laptop.getSku());
+        assertEquals("Laptop", laptop.getName());
+        assertEquals("13inch", laptop.getVariant());
+        assertEquals("Thin", laptop.getDescription());
+        assertEquals(5L, laptop.getStockQuantity());
+        assertEquals(2L, laptop.getLowStockThreshold());
+        assertEquals(7L, laptop.getVersion());
+        assertNull(pencil.getVariant());
+        assertNull(pencil.getDescription());
+        assertTrue(readStore.find("mouse").isEmpty());
+        assertEquals(10L, readStore.getCatalogVersion());
+    }
+
+    @Test
+    void refresh_shouldApplyChangesAndDeletionsSinceLoadedVersion() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            products.add(new Product("Item", "v" + i, "d", 10L, 5L, "itemV" + i, 1L));
+        }
+        load(10L, products);
+
+        when(productRepository.findCatalogVersion()).thenReturn(14L);
+        when(productRepository.findSkusDeletedSince(10L)).thenReturn(List.of("ITEMV3", "itemV50"));
+        when(productRepository.findChangedSince(10L)).thenReturn(List.of(
+                new Product("Item", "v7", "Updated", 1L, 5L, "itemV7", 12L),
+                new Product("Item", "v3", "Recreated", 4L, 5L, "itemV3", 14L)));
+        readStore.refresh();
+
+        assertEquals(14L, readStore.getCatalogVersion());
+        assertEquals("Updated", readStore.find("itemV7").orElseThrow().getDescription());
+        assertEquals(1L, readStore.find("itemV7").orElseThrow().getStockQuantity());
+        assertEquals("Recreated", readStore.find("itemV3").orElseThrow().getDescription());
+        assertTrue(readStore.find("itemV50").isEmpty());
+        // Every remaining SKU is still reachable after the index entries moved
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i != 50, readStore.find("itemV" + i).isPresent());
+        }
+        List<Product> all = readStore.findAll();
+        assertEquals(99, all.size());
+        assertEquals("itemV0", all.get(0).getSku());
+        assertEquals("itemV3", all.get(98).getSku());
+    }
+
+    private void load(long catalogVersion, List<Product> products) {
+        when(productRepository.count()).thenReturn((long) products.size());
+        when(productRepository.findCatalogVersion()).thenReturn(catalogVersion);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            products.forEach(consumer);
+            return null;
+        }).when(productRepository).forEachProduct(any());
+        readStore.load();
+    }
+}
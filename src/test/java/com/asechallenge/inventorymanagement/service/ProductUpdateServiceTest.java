@@ -1,29 +1,60 @@
 package com.asechallenge.inventorymanagement.service;
 
+import com.asechallenge.inventorymanagement.dto.CartLineDTO;
 import com.asechallenge.inventorymanagement.dto.ProductUpdateRequestDTO;
 import com.asechallenge.inventorymanagement.dto.StockChangeRequestDTO;
 import com.asechallenge.inventorymanagement.entity.Product;
 import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ProductNotFoundException;
 import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+import com.asechallenge.inventorymanagement.repository.StockJournalCheckpointRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.time.Duration;
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 
 public class ProductUpdateServiceTest {
 
     private ProductRepository productRepository;
+    private StockReservationIndex reservationIndex;
+    private SimpleMeterRegistry meterRegistry;
     private ProductUpdateService updateService;
 
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        updateService = new ProductUpdateService(productRepository);
+        reservationIndex = new StockReservationIndex();
+        meterRegistry = new SimpleMeterRegistry();
+        updateService = new ProductUpdateService(productRepository, mock(StockWriteBehindBuffer.class),
+                mock(HotStockLedger.class), reservationIndex, new ProductCache(true, 100, Duration.ofMinutes(1)),
+                mock(ApplicationEventPublisher.class), new InventoryMetrics(meterRegistry));
     }
 
     @Test
@@ -54,5 +85,120 @@ public class ProductUpdateServiceTest {
         assertThrows(InvalidStockValueException.class, () -> 
             updateService.decreaseStock("Laptop", "13inch", dto)
         );
+        assertEquals(1.0, meterRegistry.counter("inventory.stock.outs").count());
+    }
+
+    @Test
+    void decreaseStock_unknownProduct_shouldThrowNotFound() {
+        when(productRepository.decreaseStockReturning(anyString(), anyLong())).thenReturn(Optional.empty());
+        when(productRepository.findBySkuIgnoreCase(anyString())).thenReturn(Optional.empty());
+        StockChangeRequestDTO dto = new StockChangeRequestDTO();
+        dto.setQuantity(1L);
+
+        assertThrows(ProductNotFoundException.class, () ->
+            updateService.decreaseStock("Laptop", "13inch", dto)
+        );
+    }
+
+    @Test
+    void increaseStock_shouldReturnRowFromUpdate() {
+        Product updated = new Product("Laptop", "13inch", "desc", 8L, 2L, "laptop13inch");
+        when(productRepository.increaseStockReturning("laptop13inch", 3L)).thenReturn(Optional.of(updated));
+        StockChangeRequestDTO dto = new StockChangeRequestDTO();
+        dto.setQuantity(3L);
+
+        assertEquals(8L, updateService.increaseStock("Laptop", "13inch", dto).getStockQuantity());
+    }
+
+    @Test
+    void decreaseStock_intoReservedUnits_shouldThrowException() {
+        reservationIndex.hold("laptop13inch", "Laptop", "13inch", 4L, Instant.now().plusSeconds(60), () -> 5L);
+        StockChangeRequestDTO dto = new StockChangeRequestDTO();
+        dto.setQuantity(2L);
+
+        assertThrows(InvalidStockValueException.class, () ->
+            updateService.decreaseStock("Laptop", "13inch", dto)
+        );
+        verify(productRepository, never()).decreaseStockReturning(anyString(), anyLong());
+        assertEquals(1.0, meterRegistry.counter("inventory.stock.outs").count());
+    }
+
+    @Test
+    void decreaseCart_shortLine_shouldRejectWholeCartBeforeWriting() {
+        when(productRepository.findStockQuantitiesBySkus(anyCollection()))
+                .thenReturn(Map.of("laptop13inch", 10L, "phoneX", 1L));
+
+        assertThrows(InvalidStockValueException.class, () -> updateService.decreaseCart(
+                List.of(cartLine("Laptop", "13inch", 2L), cartLine("Phone", "X", 2L))));
+        verify(productRepository, never()).adjustStockBySkus(anyList(), anyList());
+        assertEquals(1.0, meterRegistry.counter("inventory.stock.outs").count());
+    }
+
+    @Test
+    void decreaseCart_shouldMergeLinesAndApplyOneBatchInSkuOrder() {
+        when(productRepository.findStockQuantitiesBySkus(anyCollection()))
+                .thenReturn(Map.of("laptop13inch", 10L, "phoneX", 5L));
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenReturn(new int[] {1, 1});
+        when(productRepository.findAllBySkus(any())).thenReturn(List.of(
+                new Product("Phone", "X", "desc", 4L, 2L, "phoneX"),
+                new Product("Laptop", "13inch", "desc", 7L, 2L, "laptop13inch")));
+
+        List<Product> updated = updateService.decreaseCart(List.of(
+                cartLine("Phone", "X", 1L), cartLine("Laptop", "13inch", 2L), cartLine("laptop", "13 inch", 1L)));
+
+        verify(productRepository).adjustStockBySkus(List.of("laptop13inch", "phoneX"), List.of(-3L, -1L));
+        assertEquals("laptop13inch", updated.get(0).getSku());
+        assertEquals("phoneX", updated.get(1).getSku());
+    }
+
+    @Test
+    void decreaseCart_failingAfterFlushThreshold_shouldNotFlushInsideTheCart(@TempDir Path tempDir) throws Exception {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findBySkuIgnoreCase("laptop13inch")).thenReturn(
+                Optional.of(new Product("Laptop", "13inch", "desc", 10L, 2L, "laptop13inch")));
+        when(productRepository.findBySkuIgnoreCase("phoneX")).thenReturn(
+                Optional.of(new Product("Phone", "X", "desc", 0L, 2L, "phoneX")));
+        Thread caller = Thread.currentThread();
+        List<String> callerWrites = new CopyOnWriteArrayList<>();
+        List<Long> laptopDeltas = new CopyOnWriteArrayList<>();
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> skus = invocation.getArgument(0);
+            List<Long> deltas = invocation.getArgument(1);
+            if (Thread.currentThread() == caller) {
+                callerWrites.addAll(skus);
+            }
+            for (int i = 0; i < skus.size(); i++) {
+                if (skus.get(i).equals("laptop13inch")) {
+                    laptopDeltas.add(deltas.get(i));
+                }
+            }
+            int[] updated = new int[skus.size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        });
+        // Every delta crosses the flush threshold
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(true, 1, tempDir.resolve("journal"),
+                productRepository, mock(StockJournalCheckpointRepository.class),
+                mock(StockDeltaDeadLetterRepository.class), new InventoryMetrics(meterRegistry), transactionManager);
+        buffer.recover();
+        updateService = new ProductUpdateService(productRepository, buffer, mock(HotStockLedger.class),
+                reservationIndex, new ProductCache(true, 100, Duration.ofMinutes(1)),
+                mock(ApplicationEventPublisher.class), new InventoryMetrics(meterRegistry));
+
+        assertThrows(InvalidStockValueException.class, () -> updateService.decreaseCart(
+                List.of(cartLine("Laptop", "13inch", 3L), cartLine("Phone", "X", 1L))));
+        assertTrue(callerWrites.isEmpty());
+
+        buffer.shutdown();
+        assertEquals(0L, laptopDeltas.stream().mapToLong(Long::longValue).sum());
+    }
+
+    private CartLineDTO cartLine(String name, String variant, Long quantity) {
+        CartLineDTO line = new CartLineDTO();
+        line.setName(name);
+        line.setVariant(variant);
+        line.setQuantity(quantity);
+        return line;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog.Movement;
+import com.asechallenge.inventorymanagement.repository.StockMovementLog.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class StockMovementJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private StockMovementJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.shutdown();
+    }
+
+    @Test
+    void find_shouldReturnMovementsOfOneSkuInOrder() throws Exception {
+        journal = start(DataSize.ofMegabytes(1));
+        journal.recordCreated(product("laptop13inch", 10L));
+        journal.recordCreated(product("mouse", 4L));
+        journal.onStockChanged(new StockChangedEvent(product("laptop13inch", 7L), -3L));
+        journal.recordDeleted(product("mouse", 4L));
+
+        List<Movement> movements = awaitMovements("laptop13inch", 2);
+
+        assertEquals(Type.CREATE, movements.get(0).type());
+        assertEquals(Type.DECREASE, movements.get(1).type());
+        assertEquals(-3L, movements.get(1).delta());
+        assertEquals(7L, movements.get(1).quantity());
+        assertEquals(Map.of("laptop13inch", 7L), journal.quantitiesAt(Instant.now()));
+    }
+
+    @Test
+    void restart_shouldRebuildQuantitiesFromSnapshotAndRotatedSegments() throws Exception {
+        // Tiny segments force a rotation every few records
+        journal = start(DataSize.ofBytes(128));
+        for (int i = 1; i <= 20; i++) {
+            journal.onStockChanged(new StockChangedEvent(product("laptop13inch", i), 1L));
+        }
+        awaitMovements("laptop13inch", 20);
+        journal.shutdown();
+
+        journal = start(DataSize.ofBytes(128));
+        journal.onStockChanged(new StockChangedEvent(product("laptop13inch", 21L), 1L));
+        awaitMovements("laptop13inch", 21);
+
+        assertTrue(countFiles("segment-") > 1);
+        assertEquals(21L, journal.quantitiesAt(Instant.now()).get("laptop13inch"));
+        List<Movement> page = journal.find("laptop13inch", Instant.EPOCH, Instant.now().plusSeconds(1), 10, 5);
+        assertEquals(5, page.size());
+        assertEquals(11L, page.get(0).sequence());
+    }
+
+    @Test
+    void restart_afterTornWrite_shouldDropPartialRecordAndContinue() throws Exception {
+        journal = start(DataSize.ofMegabytes(1));
+        journal.recordCreated(product("laptop13inch", 10L));
+        awaitMovements("laptop13inch", 1);
+        journal.shutdown();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+            Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+
+        journal = start(DataSize.ofMegabytes(1));
+        journal.onStockChanged(new StockChangedEvent(product("laptop13inch", 12L), 2L));
+        List<Movement> movements = awaitMovements("laptop13inch", 2);
+
+        assertEquals(2L, movements.get(1).sequence());
+        assertEquals(12L, movements.get(1).quantity());
+    }
+
+    private StockMovementJournal start(DataSize segmentSize) throws IOException {
+        StockMovementJournal started = new StockMovementJournal(true, directory, segmentSize, 1024, 4,
+                mock(ProductRepository.class));
+        started.start();
+        return started;
+    }
+
+    private List<Movement> awaitMovements(String sku, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<Movement> movements;
+        do {
+            movements = journal.find(sku, Instant.EPOCH, Instant.now().plusSeconds(1), 0, 1000);
+            if (movements.size() >= expected) {
+                return movements;
+            }
+            Thread.sleep(10);
+        } while (System.currentTimeMillis() < deadline);
+        throw new AssertionError("Expected " + expected + " movements but found " + movements.size());
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private Product product(String sku, long stock) {
+        return new Product("Laptop", "13inch", "desc", stock, 2L, sku);
+    }
+}
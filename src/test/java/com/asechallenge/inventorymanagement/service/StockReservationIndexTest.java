@@ -0,0 +1,105 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.event.StockChangedEvent;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ReservationNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StockReservationIndexTest {
+
+    private static final String SKU = "laptop13inch";
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    private StockReservationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StockReservationIndex();
+    }
+
+    @Test
+    void hold_beyondUnheldStock_shouldThrowException() {
+        index.hold(SKU, "Laptop", "13inch", 7L, NOW.plusSeconds(60), () -> 10L);
+
+        assertThrows(InvalidStockValueException.class, () ->
+                index.hold(SKU, "Laptop", "13inch", 4L, NOW.plusSeconds(60), () -> 10L));
+        assertEquals(3L, index.available(SKU).getAsLong());
+    }
+
+    @Test
+    void claim_shouldKeepUnitsHeldUntilSettled() {
+        StockReservation reservation = index.hold(SKU, "Laptop", "13inch", 4L, NOW.plusSeconds(60), () -> 10L);
+
+        StockReservation claimed = index.claim(reservation.getId(), NOW);
+        assertEquals(4L, index.held(SKU));
+        assertThrows(ReservationNotFoundException.class, () -> index.claim(reservation.getId(), NOW));
+
+        index.settle(claimed);
+        assertFalse(index.isTracked(SKU));
+    }
+
+    @Test
+    void claim_expiredReservation_shouldThrowAndReleaseUnits() {
+        StockReservation reservation = index.hold(SKU, "Laptop", "13inch", 4L, NOW.plusSeconds(60), () -> 10L);
+
+        assertThrows(ReservationNotFoundException.class, () ->
+                index.claim(reservation.getId(), NOW.plusSeconds(60)));
+        assertEquals(0L, index.held(SKU));
+    }
+
+    @Test
+    void releaseExpired_shouldReleaseOnlyExpiredHolds() {
+        index.hold(SKU, "Laptop", "13inch", 1L, NOW.plusSeconds(10), () -> 10L);
+        index.hold(SKU, "Laptop", "13inch", 2L, NOW.plusSeconds(20), () -> 10L);
+        StockReservation released = index.hold(SKU, "Laptop", "13inch", 3L, NOW.plusSeconds(5), () -> 10L);
+        index.hold(SKU, "Laptop", "13inch", 4L, NOW.plusSeconds(30), () -> 10L);
+        index.release(released.getId());
+
+        assertEquals(2, index.releaseExpired(NOW.plusSeconds(20)));
+        assertEquals(4L, index.held(SKU));
+        assertEquals(0, index.releaseExpired(NOW.plusSeconds(20)));
+    }
+
+    @Test
+    void onStockChanged_shouldTrackOnHandOfHeldSku() {
+        index.hold(SKU, "Laptop", "13inch", 4L, NOW.plusSeconds(60), () -> 10L);
+
+        index.onStockChanged(new StockChangedEvent(new Product("Laptop", "13inch", "desc", 6L, 2L, SKU), -4L));
+
+        assertEquals(2L, index.available(SKU).getAsLong());
+        assertThrows(InvalidStockValueException.class, () -> index.takeUnreserved(SKU, 3L));
+        assertDoesNotThrow(() -> index.takeUnreserved(SKU, 2L));
+        assertDoesNotThrow(() -> index.takeUnreserved("otherSku", 100L));
+    }
+
+    @Test
+    void takeUnreserved_inTransaction_shouldKeepUnitsUntilTheTransactionCompletes() {
+        index.hold(SKU, "Laptop", "13inch", 5L, NOW.plusSeconds(60), () -> 10L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Two decreases of the 5 unheld units: the second must not pass before the first commits
+            index.takeUnreserved(SKU, 5L);
+            assertThrows(InvalidStockValueException.class, () -> index.takeUnreserved(SKU, 5L));
+            assertEquals(0L, index.available(SKU).getAsLong());
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(5L, index.available(SKU).getAsLong());
+    }
+}
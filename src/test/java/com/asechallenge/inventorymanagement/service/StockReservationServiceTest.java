@@ -0,0 +1,159 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.dto.StockReservationRequestDTO;
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.exception.ReservationNotFoundException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+import com.asechallenge.inventorymanagement.repository.StockJournalCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockReservationServiceTest {
+
+    private ProductRepository productRepository;
+    private ProductUpdateService updateService;
+    private StockReservationIndex reservationIndex;
+    private StockWriteBehindBuffer writeBehindBuffer;
+    private StockReservationService reservationService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productRepository = mock(ProductRepository.class);
+        updateService = mock(ProductUpdateService.class);
+        reservationIndex = new StockReservationIndex();
+        HotStockLedger hotStockLedger = mock(HotStockLedger.class);
+        when(hotStockLedger.project(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.findBySkuIgnoreCase("laptop13inch"))
+                .thenReturn(Optional.of(new Product("Laptop", "13inch", "desc", 10L, 2L, "laptop13inch")));
+        writeBehindBuffer = new StockWriteBehindBuffer(true, 100, tempDir.resolve("journal"), productRepository,
+                mock(StockJournalCheckpointRepository.class), mock(StockDeltaDeadLetterRepository.class),
+                mock(InventoryMetrics.class), mock(PlatformTransactionManager.class));
+        writeBehindBuffer.recover();
+
+        reservationService = new StockReservationService(productRepository,
+                new ProductCache(true, 100, Duration.ofMinutes(1)), hotStockLedger, writeBehindBuffer,
+                reservationIndex, updateService, Duration.ofMinutes(15), Duration.ofHours(2));
+    }
+
+    @Test
+    void hold_shouldNotWriteStock() {
+        reservationService.hold("Laptop", "13inch", request(6L, null));
+        reservationService.hold("Laptop", "13inch", request(4L, null));
+
+        assertEquals(0L, reservationService.getAvailability("Laptop", "13inch").getAvailableQuantity());
+        assertThrows(InvalidStockValueException.class, () ->
+                reservationService.hold("Laptop", "13inch", request(1L, null)));
+        // The row is read once to seed the index; later holds are answered from memory
+        verify(productRepository, times(1)).findBySkuIgnoreCase(anyString());
+        verify(updateService, never()).decreaseReservedStock(any());
+    }
+
+    @Test
+    void hold_concurrentWithSettle_shouldAlwaysSeeTheStock() throws Exception {
+        // At most 8 of the 10 units are ever held, so no hold may be refused
+        List<Callable<Void>> buyers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            buyers.add(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    StockReservation reservation = reservationService.hold("Laptop", "13inch", request(1L, null));
+                    reservationService.release(reservation.getId().toString());
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> future : executor.invokeAll(buyers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertFalse(reservationIndex.isTracked("laptop13inch"));
+    }
+
+    @Test
+    void hold_ttlAboveMaximum_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () ->
+                reservationService.hold("Laptop", "13inch", request(1L, Duration.ofHours(3).toSeconds())));
+    }
+
+    @Test
+    void commit_shouldDecreaseStockOnceAndReleaseHold() {
+        StockReservation reservation = reservationService.hold("Laptop", "13inch", request(4L, null));
+        String id = reservation.getId().toString();
+
+        reservationService.commit(id);
+
+        verify(updateService).decreaseReservedStock(reservation);
+        assertFalse(reservationIndex.isTracked("laptop13inch"));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.commit(id));
+    }
+
+    @Test
+    void commit_rejectedDecrease_shouldStillReleaseHold() {
+        StockReservation reservation = reservationService.hold("Laptop", "13inch", request(4L, null));
+        when(updateService.decreaseReservedStock(reservation))
+                .thenThrow(new InvalidStockValueException("Cannot decrease stock by 4. Only 3 items available."));
+
+        assertThrows(InvalidStockValueException.class, () ->
+                reservationService.commit(reservation.getId().toString()));
+        assertFalse(reservationIndex.isTracked("laptop13inch"));
+    }
+
+    @Test
+    void sweep_shouldKeepUnflushedWriteBehindDeltas() {
+        reservationService.hold("Laptop", "13inch", request(2L, null));
+        writeBehindBuffer.decrease("laptop13inch", 5L, "Laptop", "13inch");
+        reservationIndex.updateOnHand("laptop13inch", 5L);
+        // The row still holds the 10 units from before the buffered decrease
+        when(productRepository.findStockQuantitiesBySkus(anyList())).thenReturn(Map.of("laptop13inch", 10L));
+
+        reservationService.sweep();
+
+        assertEquals(3L, reservationService.getAvailability("Laptop", "13inch").getAvailableQuantity());
+    }
+
+    @Test
+    void release_unknownReservation_shouldThrowNotFound() {
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.release("not-a-reservation"));
+    }
+
+    private StockReservationRequestDTO request(Long quantity, Long ttlSeconds) {
+        StockReservationRequestDTO dto = new StockReservationRequestDTO();
+        dto.setQuantity(quantity);
+        dto.setTtlSeconds(ttlSeconds);
+        return dto;
+    }
+}
@@ -0,0 +1,242 @@
+package com.asechallenge.inventorymanagement.service;
+
+import com.asechallenge.inventorymanagement.entity.Product;
+import com.asechallenge.inventorymanagement.entity.StockDeltaDeadLetter;
+import com.asechallenge.inventorymanagement.entity.StockJournalCheckpoint;
+import com.asechallenge.inventorymanagement.exception.InvalidStockValueException;
+import com.asechallenge.inventorymanagement.repository.ProductRepository;
+import com.asechallenge.inventorymanagement.repository.StockDeltaDeadLetterRepository;
+import com.asechallenge.inventorymanagement.repository.StockJournalCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockWriteBehindBufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProductRepository productRepository;
+    private StockJournalCheckpointRepository checkpointRepository;
+    private StockDeltaDeadLetterRepository deadLetterRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryMetrics metrics;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        checkpointRepository = mock(StockJournalCheckpointRepository.class);
+        deadLetterRepository = mock(StockDeltaDeadLetterRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new InventoryMetrics(meterRegistry);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.findBySkuIgnoreCase(anyString())).thenReturn(
+                Optional.of(new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch")));
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenReturn(new int[] {1});
+    }
+
+    @Test
+    void flush_shouldMergeDeltasPerSku() throws Exception {
+        StockWriteBehindBuffer buffer = newBuffer();
+
+        buffer.increase("laptop13inch", 3L, "Laptop", "13inch");
+        Product projected = buffer.decrease("laptop13inch", 1L, "Laptop", "13inch");
+        buffer.flush();
+
+        assertEquals(7L, projected.getStockQuantity());
+        verify(productRepository).adjustStockBySkus(List.of("laptop13inch"), List.of(2L));
+    }
+
+    @Test
+    void project_shouldApplyBufferedDeltasUntilTheyAreFlushed() throws Exception {
+        StockWriteBehindBuffer buffer = newBuffer();
+        Product committed = new Product("Laptop", "13inch", "desc", 5L, 2L, "laptop13inch");
+
+        buffer.decrease("laptop13inch", 2L, "Laptop", "13inch");
+        assertEquals(3L, buffer.project(committed).getStockQuantity());
+
+        buffer.flush();
+        // The row now holds the flushed stock, so reads of it are returned as they are
+        Product flushed = new Product("Laptop", "13inch", "desc", 3L, 2L, "laptop13inch");
+        assertSame(flushed, buffer.project(flushed));
+    }
+
+    @Test
+    void decrease_beyondProjectedStock_shouldThrowException() throws Exception {
+        StockWriteBehindBuffer buffer = newBuffer();
+        buffer.decrease("laptop13inch", 4L, "Laptop", "13inch");
+
+        assertThrows(InvalidStockValueException.class, () ->
+            buffer.decrease("laptop13inch", 2L, "Laptop", "13inch")
+        );
+    }
+
+    @Test
+    void recover_shouldReplayUnflushedDeltas() throws Exception {
+        StockWriteBehindBuffer crashed = newBuffer();
+        crashed.increase("laptop13inch", 4L, "Laptop", "13inch");
+        // Simulates a crash: no flush, no shutdown
+
+        newBuffer();
+
+        verify(productRepository).adjustStockBySkus(List.of("laptop13inch"), List.of(4L));
+    }
+
+    @Test
+    void recover_shouldSkipDeltasCoveredByCheckpoint() throws Exception {
+        StockWriteBehindBuffer crashed = newBuffer();
+        crashed.increase("laptop13inch", 4L, "Laptop", "13inch");
+        // Flushed to the database, but the process died before the journal was truncated
+        when(checkpointRepository.findById(StockWriteBehindBuffer.JOURNAL_NAME))
+                .thenReturn(Optional.of(new StockJournalCheckpoint(StockWriteBehindBuffer.JOURNAL_NAME, 1L)));
+
+        newBuffer();
+
+        verify(productRepository, never()).adjustStockBySkus(anyList(), anyList());
+    }
+
+    @Test
+    void flush_rejectedDelta_shouldBeDeadLetteredWithTheCheckpoint() throws Exception {
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenReturn(new int[] {0});
+        StockWriteBehindBuffer buffer = newBuffer();
+
+        buffer.decrease("laptop13inch", 2L, "Laptop", "13inch");
+        buffer.flush();
+
+        ArgumentCaptor<StockDeltaDeadLetter> deadLetter = ArgumentCaptor.forClass(StockDeltaDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals("laptop13inch", deadLetter.getValue().getSku());
+        assertEquals(-2L, deadLetter.getValue().getDelta());
+        verify(checkpointRepository).save(any(StockJournalCheckpoint.class));
+        assertEquals(1.0, meterRegistry.counter("inventory.stock.dead.letters", "source", "write_behind").count());
+    }
+
+    @Test
+    void discard_shouldLetARecreatedProductStartFromItsOwnRow() throws Exception {
+        StockWriteBehindBuffer buffer = newBuffer();
+        buffer.decrease("laptop13inch", 4L, "Laptop", "13inch");
+
+        // Deleted and created again with 9 units; the old entry's base of 5 must not be reused
+        buffer.discard("laptop13inch");
+        when(productRepository.findBySkuIgnoreCase(anyString())).thenReturn(
+                Optional.of(new Product("Laptop", "13inch", "desc", 9L, 2L, "laptop13inch")));
+        buffer.decrease("laptop13inch", 9L, "Laptop", "13inch");
+        buffer.flush();
+
+        verify(productRepository).adjustStockBySkus(List.of("laptop13inch"), List.of(-9L));
+    }
+
+    @Test
+    void handOff_shouldWritePendingDeltasBeforeTheNewOwnerReadsTheRow() throws Exception {
+        StockWriteBehindBuffer buffer = newBuffer();
+        buffer.decrease("laptop13inch", 2L, "Laptop", "13inch");
+
+        Product promoted = buffer.handOff("laptop13inch", () -> {
+            verify(productRepository).adjustStockBySkus(List.of("laptop13inch"), List.of(-2L));
+            return new Product("Laptop", "13inch", "desc", 3L, 2L, "laptop13inch");
+        });
+
+        assertEquals(3L, promoted.getStockQuantity());
+        // A change that missed the promotion must not be buffered against the row the ledger now owns
+        assertThrows(InvalidStockValueException.class, () ->
+                buffer.decrease("laptop13inch", 1L, "Laptop", "13inch"));
+
+        buffer.reopen("laptop13inch");
+        assertEquals(4L, buffer.decrease("laptop13inch", 1L, "Laptop", "13inch").getStockQuantity());
+    }
+
+    @Test
+    void concurrentChanges_shouldEachBeFlushedExactlyOnce() throws Exception {
+        when(productRepository.findBySkuIgnoreCase("mouse"))
+                .thenReturn(Optional.of(new Product("Mouse", "", "desc", 0L, 2L, "mouse")));
+        Map<String, Long> written = new HashMap<>();
+        when(productRepository.adjustStockBySkus(anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> skus = invocation.getArgument(0);
+            List<Long> deltas = invocation.getArgument(1);
+            synchronized (written) {
+                for (int i = 0; i < skus.size(); i++) {
+                    written.merge(skus.get(i), deltas.get(i), Long::sum);
+                }
+            }
+            int[] updated = new int[skus.size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        });
+        StockWriteBehindBuffer buffer = newBuffer();
+
+        // Buyers of two SKUs run while another thread keeps flushing
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String sku : List.of("laptop13inch", "mouse", "laptop13inch", "mouse")) {
+            tasks.add(() -> {
+                for (int i = 0; i < 250; i++) {
+                    buffer.increase(sku, 1L, "Name", "Variant");
+                }
+                return null;
+            });
+        }
+        tasks.add(() -> {
+            for (int i = 0; i < 50; i++) {
+                buffer.flush();
+            }
+            return null;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        buffer.flush();
+
+        assertEquals(Map.of("laptop13inch", 500L, "mouse", 500L), written);
+        assertEquals(505L, buffer.projectStock("laptop13inch", 505L));
+    }
+
+    @Test
+    void disabled_shouldNotTouchJournalOrDatabase() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(false, 10, tempDir.resolve("journal"),
+                productRepository, checkpointRepository, deadLetterRepository, metrics, transactionManager);
+        buffer.recover();
+        buffer.flush();
+
+        verify(productRepository, never()).adjustStockBySkus(anyList(), anyList());
+    }
+
+    private StockWriteBehindBuffer newBuffer() throws Exception {
+        StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(true, 100, tempDir.resolve("journal"),
+                productRepository, checkpointRepository, deadLetterRepository, metrics, transactionManager);
+        buffer.recover();
+        return buffer;
+    }
+}
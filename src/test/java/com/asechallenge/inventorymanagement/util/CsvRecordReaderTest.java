@@ -0,0 +1,42 @@
+package com.asechallenge.inventorymanagement.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    void next_quotedFields_shouldKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "name,description\r\nLaptop,\"Fast, \"\"thin\"\"\nand light\"\r\nMouse,\n"));
+
+        assertEquals(List.of("name", "description"), reader.next());
+        assertEquals(List.of("Laptop", "Fast, \"thin\"\nand light"), reader.next());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("Mouse", ""), reader.next());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_lastRecordWithoutLineBreak_shouldBeReturned() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_unterminatedQuote_shouldThrowException() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,\"b\n"));
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
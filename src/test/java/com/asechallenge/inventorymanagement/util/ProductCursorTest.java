@@ -0,0 +1,24 @@
+package com.asechallenge.inventorymanagement.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class ProductCursorTest {
+
+    @Test
+    void decode_encodedCursor_shouldReturnSameId() {
+        assertEquals(42L, ProductCursor.decode(ProductCursor.encode(42L)));
+    }
+
+    @Test
+    void decode_missingCursor_shouldStartFromBeginning() {
+        assertEquals(0L, ProductCursor.decode(null));
+    }
+
+    @Test
+    void decode_garbage_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("not a cursor!"));
+    }
+}
@@ -1,11 +1,23 @@
 package com.asechallenge.inventorymanagement.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
 public class SkuGeneratorTest {
 
+    // Letters, digits, every \s character, other controls, Unicode spaces and characters
+    // whose case mapping changes length or depends on context
+    private static final String TRICKY_CHARS =
+            "aZ09-_. \t\n\u000B\f\r\u0000\u0001\u001C\u001F\u007F  éßİΣς𐐀";
+
     @Test
     void generateSKU_withVariant_shouldReturnCombinedCamelCaseSKU() {
         String result = SkuGenerator.generateSKU("Dell XPS", "13 inch");
@@ -17,4 +29,82 @@ public class SkuGeneratorTest {
         String result = SkuGenerator.generateSKU("Mouse", null);
         assertEquals("mouse", result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void generateSKU_repeatedKey_shouldReturnInternedInstance() {
+        String first = SkuGenerator.generateSKU("Gaming Mouse", "Wireless");
+        assertSame(first, SkuGenerator.generateSKU("Gaming Mouse", "Wireless"));
+    }
+
+    @Test
+    void appendSku_shouldAppendToExistingBufferContent() {
+        StringBuilder buffer = new StringBuilder("sku:");
+        SkuGenerator.appendSku(buffer, "Dell XPS", "13 INCH");
+        assertEquals("sku:dellxps13inch", buffer.toString());
+    }
+
+    @Property
+    void generateSKU_asciiInput_shouldMatchLegacyImplementation(
+            @ForAll("asciiNames") String name, @ForAll("asciiVariants") String variant) {
+        assertEquals(legacyOutcome(name, variant), outcome(name, variant));
+    }
+
+    @Property
+    void generateSKU_anyInput_shouldMatchLegacyImplementation(
+            @ForAll("trickyNames") String name, @ForAll("trickyVariants") String variant) {
+        assertEquals(legacyOutcome(name, variant), outcome(name, variant));
+    }
+
+    @Provide
+    Arbitrary<String> asciiNames() {
+        return Arbitraries.strings().withCharRange('\u0000', '\u007F').ofMaxLength(24);
+    }
+
+    @Provide
+    Arbitrary<String> asciiVariants() {
+        return asciiNames().injectNull(0.1);
+    }
+
+    @Provide
+    Arbitrary<String> trickyNames() {
+        return Arbitraries.strings().withChars(TRICKY_CHARS.toCharArray()).ofMaxLength(12);
+    }
+
+    @Provide
+    Arbitrary<String> trickyVariants() {
+        return trickyNames().injectNull(0.1);
+    }
+
+    // Either the SKU or the exception type, so inputs the old code rejected must still be rejected
+    private static String outcome(String name, String variant) {
+        try {
+            return SkuGenerator.generateSKU(name, variant);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+    }
+
+    private static String legacyOutcome(String name, String variant) {
+        try {
+            return legacyGenerateSKU(name, variant);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+    }
+
+    // The implementation before the single-pass rewrite, kept verbatim as the reference
+    private static String legacyGenerateSKU(String name, String variant) {
+        String base = name.replaceAll("\\s+", "").toLowerCase().trim();
+
+        if (variant == null || variant.isBlank()) {
+            return base;
+        }
+
+        String cleanedVariant = variant.replaceAll("\\s+", "").trim();
+
+        String camelVariant = cleanedVariant.substring(0, 1).toUpperCase() +
+                            cleanedVariant.substring(1).toLowerCase();
+
+        return base + camelVariant;
+    }
+}